@@ -22,7 +22,7 @@ class MyApp extends StatelessWidget {
           // tweak defaults here if you want
           defaultLowThreshold: 5,
           defaultMaxCapacity: 100,
-        )),
+        )..startLiveUpdates()),
       ],
       child: MaterialApp(
         debugShowCheckedModeBanner: false,
@@ -20,6 +20,8 @@ class Product {
   final String? details;
   final int quantity; // backend stock (immutable)
   final double price;
+  final int? lowThreshold; // null = server default
+  final int? maxCapacity; // null = server default
 
   const Product({
     this.id,
@@ -30,6 +32,8 @@ class Product {
     this.details,
     required this.quantity,
     required this.price,
+    this.lowThreshold,
+    this.maxCapacity,
   });
 
   double get totalPrice => price * quantity;
@@ -43,6 +47,8 @@ class Product {
     String? details,
     int? quantity,
     double? price,
+    int? lowThreshold,
+    int? maxCapacity,
   }) {
     return Product(
       id: id ?? this.id,
@@ -53,6 +59,8 @@ class Product {
       details: details ?? this.details,
       quantity: quantity ?? this.quantity,
       price: price ?? this.price,
+      lowThreshold: lowThreshold ?? this.lowThreshold,
+      maxCapacity: maxCapacity ?? this.maxCapacity,
     );
   }
 
@@ -66,6 +74,8 @@ class Product {
       details: json['details'] as String?,
       quantity: (json['quantity'] as num).toInt(),
       price: (json['price'] as num).toDouble(),
+      lowThreshold: (json['lowThreshold'] as num?)?.toInt(),
+      maxCapacity: (json['maxCapacity'] as num?)?.toInt(),
     );
   }
 
@@ -79,6 +89,8 @@ class Product {
       'details': details,
       'quantity': quantity,
       'price': price,
+      'lowThreshold': lowThreshold,
+      'maxCapacity': maxCapacity,
     };
   }
 }
@@ -9,13 +9,42 @@ class InvoiceService {
 
   final _client = http.Client();
 
-  Future<List<Invoice>> getAllInvoices() async {
-    final res = await _client.get(Uri.parse('$_base/api/invoices'));
+  /// One page of invoices (newest first). Pass the returned cursor to get the next one.
+  Future<({List<Invoice> items, String? nextCursor})> getInvoicePage({
+    String? cursor,
+    int size = 50,
+    DateTime? from,
+    DateTime? to,
+    String? customer,
+  }) async {
+    String day(DateTime d) => d.toIso8601String().substring(0, 10);
+    final uri = Uri.parse('$_base/api/invoices').replace(queryParameters: {
+      'size': '$size',
+      if (cursor != null) 'cursor': cursor,
+      if (from != null) 'from': day(from),
+      if (to != null) 'to': day(to),
+      if (customer != null && customer.isNotEmpty) 'customer': customer,
+    });
+    final res = await _client.get(uri);
     if (res.statusCode != 200) {
       throw Exception('Failed to load invoices: ${res.statusCode} ${res.body}');
     }
-    final List<dynamic> data = jsonDecode(res.body);
-    return data.map((e) => Invoice.fromJson(e as Map<String, dynamic>)).toList();
+    final Map<String, dynamic> data = jsonDecode(res.body);
+    final items = (data['items'] as List<dynamic>)
+        .map((e) => Invoice.fromJson(e as Map<String, dynamic>))
+        .toList();
+    return (items: items, nextCursor: data['nextCursor'] as String?);
+  }
+
+  Future<List<Invoice>> getAllInvoices() async {
+    final all = <Invoice>[];
+    String? cursor;
+    do {
+      final page = await getInvoicePage(cursor: cursor, size: 200);
+      all.addAll(page.items);
+      cursor = page.nextCursor;
+    } while (cursor != null);
+    return all;
   }
 
   Future<Map<String, dynamic>> createInvoice({
@@ -1,4 +1,8 @@
+import 'dart:async';
+import 'dart:convert';
+
 import 'package:flutter/foundation.dart';
+import 'package:http/http.dart' as http;
 import 'package:merchandise_management_system/models/product_model.dart';
 
 /// Minimal order-line model so this service compiles out-of-the-box.
@@ -54,6 +58,92 @@ class StockAlertService extends ChangeNotifier {
     notifyListeners();
   }
 
+  // ----------------------------
+  // Live stock stream (server-sent events)
+  // ----------------------------
+  static const String _streamUrl = 'http://localhost:8085/api/product/stream';
+
+  http.Client? _streamClient;
+  StreamSubscription<String>? _streamSub;
+  bool _disposed = false;
+
+  /// Listens to /api/product/stream and applies each "stock" event to the
+  /// products already loaded, instead of polling the full product list.
+  /// Reconnects after a short pause if the stream drops.
+  void startLiveUpdates() {
+    if (_disposed || _streamClient != null) return;
+    _connect();
+  }
+
+  void stopLiveUpdates() {
+    _streamSub?.cancel();
+    _streamSub = null;
+    _streamClient?.close();
+    _streamClient = null;
+  }
+
+  Future<void> _connect() async {
+    final client = http.Client();
+    _streamClient = client;
+    try {
+      final request = http.Request('GET', Uri.parse(_streamUrl))
+        ..headers['Accept'] = 'text/event-stream';
+      final response = await client.send(request);
+
+      String? event;
+      final data = StringBuffer();
+      _streamSub = response.stream
+          .transform(utf8.decoder)
+          .transform(const LineSplitter())
+          .listen((line) {
+        if (line.isEmpty) {
+          if (event == 'stock' && data.isNotEmpty) {
+            applyStockLevels(jsonDecode(data.toString()) as List<dynamic>);
+          }
+          event = null;
+          data.clear();
+        } else if (line.startsWith('event:')) {
+          event = line.substring(6).trim();
+        } else if (line.startsWith('data:')) {
+          data.write(line.substring(5));
+        }
+      }, onDone: _reconnect, onError: (_) => _reconnect(), cancelOnError: true);
+    } catch (_) {
+      _reconnect();
+    }
+  }
+
+  void _reconnect() {
+    if (_streamClient == null) return; // stopped on purpose
+    stopLiveUpdates();
+    Future.delayed(const Duration(seconds: 5), startLiveUpdates);
+  }
+
+  /// Applies compact {productId, quantity, deleted} updates to the loaded list.
+  void applyStockLevels(List<dynamic> levels) {
+    var changed = false;
+    for (final raw in levels) {
+      final level = raw as Map<String, dynamic>;
+      final id = level['productId'] as int;
+      final i = _all.indexWhere((p) => p.id == id);
+      if (i < 0) continue;
+      if (level['deleted'] == true) {
+        _all.removeAt(i);
+      } else {
+        _all[i] = _all[i].copyWith(quantity: level['quantity'] as int);
+      }
+      changed = true;
+    }
+    if (changed) notifyListeners();
+  }
+
+  @override
+  void dispose() {
+    _disposed = true;
+    stopLiveUpdates();
+    super.dispose();
+  }
+
   // ----------------------------
   // Sales state
   // ----------------------------
@@ -118,8 +208,8 @@ class StockAlertService extends ChangeNotifier {
     notifyListeners(); // at least triggers UI rebuild
   }
 
-  int _lowThresholdFor(Product p) => defaultLowThreshold;
-  int _maxCapacityFor(Product p) => defaultMaxCapacity;
+  int _lowThresholdFor(Product p) => p.lowThreshold ?? defaultLowThreshold;
+  int _maxCapacityFor(Product p) => p.maxCapacity ?? defaultMaxCapacity;
 
   bool isLow(Product p) => p.quantity <= _lowThresholdFor(p);
   bool isFull(Product p) => p.quantity >= _maxCapacityFor(p);
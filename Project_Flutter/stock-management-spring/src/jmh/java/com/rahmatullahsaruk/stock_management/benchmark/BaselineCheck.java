@@ -0,0 +1,79 @@
+package com.rahmatullahsaruk.stock_management.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result with the recorded baseline and fails when any benchmark got
+ * slower than the baseline by more than the tolerance. Benchmarks missing from either file
+ * are skipped, so a filtered run only checks what it ran.
+ * <p>
+ * Arguments: {@code <result.json> <baseline.json> <tolerance>}, tolerance as a fraction
+ * (0.25 = 25% slower). All benchmarks here report time per operation; lower is better.
+ * <p>
+ * Baseline numbers only mean something on the machine and code that recorded them. To
+ * re-record, run the full suite there with default iteration counts and copy
+ * {@code target/jmh-result.json} over {@code src/jmh/baseline.json} (the steps are in the
+ * benchmarks profile of pom.xml).
+ */
+public final class BaselineCheck {
+
+    private BaselineCheck() {}
+
+    public static void main(String[] args) throws IOException {
+        File result = new File(args[0]);
+        File baseline = new File(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+
+        if (!result.exists() || !baseline.exists()) {
+            System.out.println("Baseline check skipped: " + (result.exists() ? baseline : result) + " not found");
+            return;
+        }
+
+        Map<String, JsonNode> expected = index(baseline);
+        Map<String, JsonNode> actual = index(result);
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Now", "Change");
+        for (Map.Entry<String, JsonNode> e : actual.entrySet()) {
+            JsonNode base = expected.get(e.getKey());
+            if (base == null) continue;
+
+            double before = base.path("primaryMetric").path("score").asDouble();
+            double now = e.getValue().path("primaryMetric").path("score").asDouble();
+            String unit = e.getValue().path("primaryMetric").path("scoreUnit").asText();
+            double change = (now - before) / before;
+            boolean regressed = change > tolerance;
+            if (regressed) regressions++;
+
+            System.out.printf("%-70s %14s %14s %+8.1f%%%s%n", e.getKey(),
+                    String.format("%.3f %s", before, unit), String.format("%.3f %s", now, unit),
+                    change * 100, regressed ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) more than %.0f%% slower than the baseline%n", regressions, tolerance * 100);
+            System.exit(1);
+        }
+    }
+
+    // "Class.method (param=value, ...)" -> result entry
+    private static Map<String, JsonNode> index(File file) throws IOException {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            String name = run.path("benchmark").asText();
+            name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").properties().forEach(p -> params.put(p.getKey(), p.getValue().asText()));
+            byKey.put(params.isEmpty() ? name : name + " " + params, run);
+        }
+        return byKey;
+    }
+}
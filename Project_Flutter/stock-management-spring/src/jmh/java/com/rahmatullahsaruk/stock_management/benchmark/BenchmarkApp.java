@@ -0,0 +1,28 @@
+package com.rahmatullahsaruk.stock_management.benchmark;
+
+import com.rahmatullahsaruk.stock_management.StockManagementApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Boots the whole application on its own in-memory H2 database (test application.properties)
+final class BenchmarkApp {
+
+    private BenchmarkApp() {}
+
+    static ConfigurableApplicationContext start(String database, String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.devtools.restart.enabled=false",
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "spring.jpa.properties.hibernate.generate_statistics=false",
+                "logging.level.root=WARN"));
+        all.addAll(Arrays.asList(properties));
+        return new SpringApplicationBuilder(StockManagementApplication.class)
+                .properties(all.toArray(String[]::new))
+                .run();
+    }
+}
@@ -0,0 +1,51 @@
+package com.rahmatullahsaruk.stock_management.benchmark;
+
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import com.rahmatullahsaruk.stock_management.service.InvoiceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InvoiceService#save} end to end on the embedded H2 database: stock reservation,
+ * line building, totals, insert and the daily rollup, one transaction per invoice.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 8, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class InvoiceCheckoutBenchmark {
+
+    @Param({"1", "10", "50", "100"})
+    int lines;
+
+    private ConfigurableApplicationContext context;
+    private InvoiceService invoiceService;
+    private List<Product> catalog;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApp.start("checkout" + lines);
+        catalog = context.getBean(ProductRepo.class).saveAll(InvoiceFixtures.catalog());
+        invoiceService = context.getBean(InvoiceService.class);
+        random = new Random(InvoiceFixtures.SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Invoice checkout() {
+        return invoiceService.save(InvoiceFixtures.checkoutRequest(catalog, lines, random));
+    }
+}
@@ -0,0 +1,96 @@
+package com.rahmatullahsaruk.stock_management.benchmark;
+
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic catalog and invoices for the checkout benchmarks. Everything comes from a
+ * fixed seed, so two runs (or two machines) measure exactly the same data.
+ */
+final class InvoiceFixtures {
+
+    static final int CATALOG_SIZE = 200;
+    static final long SEED = 20240501L;
+
+    // Enough stock that no benchmark run can sell a product out
+    static final int STOCK = 1_000_000_000;
+
+    private static final Product.Category[] CATEGORIES = Product.Category.values();
+
+    private InvoiceFixtures() {}
+
+    static List<Product> catalog() {
+        Random random = new Random(SEED);
+        List<Product> products = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            Product p = new Product();
+            p.setName("Product " + i);
+            p.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            p.setBrand("Brand " + (i % 12));
+            p.setModel("M-" + (1000 + i));
+            p.setDetails("Benchmark fixture product number " + i);
+            p.setQuantity(STOCK);
+            p.setPrice(Money.ofCents(10_000 + random.nextInt(99_900)));
+            products.add(p);
+        }
+        return products;
+    }
+
+    /**
+     * A checkout request as the client sends it: {@code lines} distinct products referenced
+     * by id, with the sale price filled in.
+     */
+    static Invoice checkoutRequest(List<Product> catalog, int lines, Random random) {
+        Invoice invoice = header(random);
+        int start = random.nextInt(catalog.size());
+        for (int i = 0; i < lines; i++) {
+            Product product = catalog.get((start + i) % catalog.size());
+            Product ref = new Product();
+            ref.setId(product.getId());
+
+            InvoiceItem item = new InvoiceItem();
+            item.setProduct(ref);
+            item.setQuantity(1 + random.nextInt(3));
+            item.setPriceAtSale(product.getPrice());
+            invoice.getItems().add(item);
+        }
+        return invoice;
+    }
+
+    // A saved invoice with ids and full products, as the mapper sees it after a fetch join
+    static Invoice savedInvoice(int lines) {
+        Random random = new Random(SEED + lines);
+        List<Product> catalog = catalog();
+        for (int i = 0; i < catalog.size(); i++) {
+            catalog.get(i).setId((long) i + 1);
+        }
+        Invoice invoice = header(random);
+        invoice.setId(42L);
+        invoice.setDate(LocalDateTime.of(2024, 5, 1, 10, 30));
+        invoice.setInvoiceNumber("INV-1714559400000");
+        for (int i = 0; i < lines; i++) {
+            Product product = catalog.get(i % catalog.size());
+            invoice.getItems().add(new InvoiceItem((long) i + 1, invoice, product,
+                    1 + random.nextInt(3), product.getPrice()));
+        }
+        invoice.calculateTotals();
+        return invoice;
+    }
+
+    private static Invoice header(Random random) {
+        int customer = random.nextInt(10_000);
+        Invoice invoice = new Invoice();
+        invoice.setName("Customer " + customer);
+        invoice.setEmail("customer" + customer + "@example.com");
+        invoice.setPhone("01700" + String.format("%06d", customer));
+        invoice.setDiscount(Money.ofCents(random.nextInt(5) * 1_000L));
+        return invoice;
+    }
+}
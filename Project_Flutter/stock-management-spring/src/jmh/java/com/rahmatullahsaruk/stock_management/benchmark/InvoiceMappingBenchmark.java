@@ -0,0 +1,60 @@
+package com.rahmatullahsaruk.stock_management.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rahmatullahsaruk.stock_management.dto.InvoiceDTO;
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.mapper.InvoiceMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory part of a checkout response: totals, entity to DTO, and DTO to JSON with
+ * the same Jackson defaults Spring MVC uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvoiceMappingBenchmark {
+
+    @Param({"1", "10", "50", "100"})
+    int lines;
+
+    private Invoice invoice;
+    private InvoiceDTO dto;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() {
+        invoice = InvoiceFixtures.savedInvoice(lines);
+        dto = InvoiceMapper.toDTO(invoice);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public Money calculateTotals() {
+        invoice.calculateTotals();
+        return invoice.getTotal();
+    }
+
+    @Benchmark
+    public InvoiceDTO toDTO() {
+        return InvoiceMapper.toDTO(invoice);
+    }
+
+    @Benchmark
+    public byte[] toJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] toDTOAndJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(InvoiceMapper.toDTO(invoice));
+    }
+}
@@ -0,0 +1,74 @@
+package com.rahmatullahsaruk.stock_management.benchmark;
+
+import com.rahmatullahsaruk.stock_management.dto.AuthDTO;
+import com.rahmatullahsaruk.stock_management.entity.Cashier;
+import com.rahmatullahsaruk.stock_management.entity.User;
+import com.rahmatullahsaruk.stock_management.repository.UserRepo;
+import com.rahmatullahsaruk.stock_management.service.AuthService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login latency under a burst of concurrent logins (a shift change), through the real
+ * {@link AuthService#authenticate} path on the embedded H2 database: user lookup, BCrypt on
+ * the hashing pool and token issue. Compare p50/p99 across strengths, and against
+ * {@code security.hashing.threads} when tuning the pool.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(8)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String EMAIL = "bench.cashier@example.com";
+    private static final String PASSWORD = "cashier-password";
+
+    @Param({"8", "10", "12"})
+    int strength;
+
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApp.start("login" + strength, "security.bcrypt.strength=" + strength);
+
+        authService = context.getBean(AuthService.class);
+
+        // Registered and activated the way a real cashier is; the password is hashed at the
+        // configured strength, so logins never take the rehash path
+        User user = new User();
+        user.setName("Bench Cashier");
+        user.setEmail(EMAIL);
+        user.setPassword(PASSWORD);
+        Cashier cashier = new Cashier();
+        cashier.setName(user.getName());
+        cashier.setEmail(EMAIL);
+        try {
+            authService.registerCashier(user, null, cashier);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        authService.activeUser(context.getBean(UserRepo.class).findByEmail(EMAIL).orElseThrow().getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public AuthDTO login() {
+        User request = new User();
+        request.setEmail(EMAIL);
+        request.setPassword(PASSWORD);
+        return authService.authenticate(request);
+    }
+}
@@ -0,0 +1,37 @@
+package com.rahmatullahsaruk.stock_management.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one BCrypt check at each candidate {@code security.bcrypt.strength}. Every step
+ * doubles the work; pick the highest strength whose time still fits the login budget on
+ * production hardware.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    @Param({"8", "10", "12"})
+    int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("cashier-password");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("cashier-password", hash);
+    }
+}
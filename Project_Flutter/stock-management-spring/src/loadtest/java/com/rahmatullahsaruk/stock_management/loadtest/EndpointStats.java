@@ -0,0 +1,43 @@
+package com.rahmatullahsaruk.stock_management.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Latencies and failures for one endpoint; each load thread keeps its own, merged at the end
+final class EndpointStats {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+    private final Map<String, Integer> errorKinds = new TreeMap<>();
+
+    void record(long nanos, String error) {
+        if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+        latencies[count++] = nanos;
+        if (error != null) {
+            errors++;
+            errorKinds.merge(error, 1, Integer::sum);
+        }
+    }
+
+    void merge(EndpointStats other) {
+        for (int i = 0; i < other.count; i++) record(other.latencies[i], null);
+        errors += other.errors;
+        other.errorKinds.forEach((k, v) -> errorKinds.merge(k, v, Integer::sum));
+    }
+
+    int count() { return count; }
+
+    int errors() { return errors; }
+
+    Map<String, Integer> errorKinds() { return errorKinds; }
+
+    // Exact percentile (nearest rank) in milliseconds; sorts in place, call once recording is over
+    double percentileMs(double p) {
+        if (count == 0) return 0;
+        Arrays.sort(latencies, 0, count);
+        int rank = (int) Math.ceil(p / 100 * count);
+        return latencies[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+}
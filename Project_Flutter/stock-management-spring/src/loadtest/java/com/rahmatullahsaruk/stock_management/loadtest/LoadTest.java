@@ -0,0 +1,280 @@
+package com.rahmatullahsaruk.stock_management.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rahmatullahsaruk.stock_management.StockManagementApplication;
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.loadtest.LoadTestConfig.Scenario;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Closed-loop load test of the whole application over HTTP. Boots
+ * {@link StockManagementApplication} on an in-memory H2 database in MySQL mode, seeds it
+ * with {@link LoadTestData}, then runs one simulated till per thread, each logged in as its
+ * own cashier and sending requests back to back in the configured mix:
+ * <ul>
+ *   <li>checkout: {@code POST /api/invoices}</li>
+ *   <li>catalog: {@code GET /api/product/all}, with the ETag from the previous call</li>
+ *   <li>dashboard: profit summary, monthly profit, sales summary and stock alerts in turn</li>
+ *   <li>login: {@code POST /api/auth/login}, replacing the till's token</li>
+ * </ul>
+ * With no think time, the checkout throughput at the end is the number of invoices per
+ * second the app sustains at that concurrency; raise {@code loadtest.threads} until it stops
+ * growing and p99 climbs. Run with {@code mvn -Ploadtest verify -DskipTests}.
+ */
+public final class LoadTest {
+
+    private final LoadTestConfig config;
+    private final LoadTestData data;
+    private final String baseUrl;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+
+    private LoadTest(LoadTestConfig config, LoadTestData data, int port) {
+        this.config = config;
+        this.data = data;
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+        System.out.println("Load test: " + config);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(StockManagementApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.devtools.restart.enabled=false",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run(args);
+        try {
+            long started = System.nanoTime();
+            LoadTestData data = LoadTestData.seed(context, config);
+            System.out.printf("Seeded %d products, %d cashiers, %d invoices in %.1fs%n",
+                    data.productIds.size(), data.cashiers.size(), config.historyDays * config.invoicesPerDay,
+                    (System.nanoTime() - started) / 1e9);
+
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            String report = new LoadTest(config, data, port).run();
+            System.out.print(report);
+            Path out = Path.of(config.report);
+            Files.createDirectories(out.toAbsolutePath().getParent());
+            Files.writeString(out, report);
+            System.out.println("Report written to " + out);
+        } finally {
+            context.close();
+        }
+        System.exit(0);
+    }
+
+    private String run() throws InterruptedException {
+        List<Till> tills = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < config.threads; i++) {
+            Till till = new Till(data.cashiers.get(i), new Random(config.seed + i));
+            tills.add(till);
+            Thread t = new Thread(till, "load-" + i);
+            threads.add(t);
+            t.start();
+        }
+
+        Thread.sleep(config.warmupSeconds * 1000L);
+        measuring = true;
+        long from = System.nanoTime();
+        Thread.sleep(config.durationSeconds * 1000L);
+        measuring = false;
+        double seconds = (System.nanoTime() - from) / 1e9;
+        stopped = true;
+        for (Thread t : threads) t.join();
+
+        Map<String, EndpointStats> merged = new TreeMap<>();
+        for (Till till : tills) {
+            till.stats.forEach((endpoint, s) -> merged.computeIfAbsent(endpoint, k -> new EndpointStats()).merge(s));
+        }
+        return report(merged, seconds);
+    }
+
+    private String report(Map<String, EndpointStats> stats, double seconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%nLoad test: %s%nMeasured %.1fs%n%n", config, seconds));
+        sb.append(String.format("%-40s %9s %9s %9s %9s %9s %8s %7s%n",
+                "Endpoint", "Requests", "Req/s", "p50 ms", "p99 ms", "max ms", "Errors", "Error%"));
+
+        EndpointStats total = new EndpointStats();
+        for (Map.Entry<String, EndpointStats> e : stats.entrySet()) {
+            row(sb, e.getKey(), e.getValue(), seconds);
+            total.merge(e.getValue());
+        }
+        row(sb, "TOTAL", total, seconds);
+
+        for (Map.Entry<String, EndpointStats> e : stats.entrySet()) {
+            if (!e.getValue().errorKinds().isEmpty()) {
+                sb.append(String.format("%n%s errors: %s", e.getKey(), e.getValue().errorKinds()));
+            }
+        }
+        EndpointStats checkout = stats.get(CHECKOUT);
+        if (checkout != null) {
+            sb.append(String.format("%n%nSustained checkout: %.1f invoices/s%n",
+                    (checkout.count() - checkout.errors()) / seconds));
+        }
+        return sb.toString();
+    }
+
+    private static void row(StringBuilder sb, String name, EndpointStats s, double seconds) {
+        sb.append(String.format("%-40s %9d %9.1f %9.2f %9.2f %9.2f %8d %6.2f%%%n",
+                name, s.count(), s.count() / seconds, s.percentileMs(50), s.percentileMs(99), s.percentileMs(100),
+                s.errors(), s.count() == 0 ? 0.0 : 100.0 * s.errors() / s.count()));
+    }
+
+    private static final String CHECKOUT = "POST /api/invoices";
+    private static final String CATALOG = "GET /api/product/all";
+    private static final String LOGIN = "POST /api/auth/login";
+    private static final String[] DASHBOARD = {
+            "/api/analytics/profit/summary?year=" + LocalDate.now().getYear(),
+            "/api/analytics/profit/monthly?year=" + LocalDate.now().getYear(),
+            "/api/invoices/sellsummary",
+            "/api/product/alerts"
+    };
+
+    // One simulated till: a logged-in cashier sending requests back to back
+    private final class Till implements Runnable {
+
+        final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        private final String email;
+        private final Random random;
+        private final Scenario[] wheel;
+        private String token;
+        private String catalogETag;
+        private int dashboardTurn;
+
+        Till(String email, Random random) {
+            this.email = email;
+            this.random = random;
+            List<Scenario> slots = new ArrayList<>();
+            config.mix.forEach((scenario, weight) -> { for (int i = 0; i < weight; i++) slots.add(scenario); });
+            this.wheel = slots.toArray(Scenario[]::new);
+        }
+
+        @Override
+        public void run() {
+            login();
+            while (!stopped) {
+                switch (wheel[random.nextInt(wheel.length)]) {
+                    case CHECKOUT -> checkout();
+                    case CATALOG -> catalog();
+                    case DASHBOARD -> dashboard();
+                    case LOGIN -> login();
+                }
+            }
+        }
+
+        private void checkout() {
+            send(CHECKOUT, post("/api/invoices", toJson(data.invoice(random))), r -> r.statusCode() == 200);
+        }
+
+        private void catalog() {
+            HttpRequest.Builder request = get("/api/product/all");
+            if (catalogETag != null) request.header("If-None-Match", catalogETag);
+            HttpResponse<byte[]> response = send(CATALOG, request, r -> r.statusCode() == 200 || r.statusCode() == 304);
+            if (response != null) catalogETag = response.headers().firstValue("ETag").orElse(catalogETag);
+        }
+
+        private void dashboard() {
+            String path = DASHBOARD[dashboardTurn++ % DASHBOARD.length];
+            int query = path.indexOf('?');
+            send("GET " + (query < 0 ? path : path.substring(0, query)), get(path), r -> r.statusCode() == 200);
+        }
+
+        private void login() {
+            String body = "{\"email\":\"" + email + "\",\"password\":\"" + LoadTestData.PASSWORD + "\"}";
+            HttpResponse<byte[]> response = send(LOGIN, post("/api/auth/login", body), r -> r.statusCode() == 200);
+            if (response != null && response.statusCode() == 200) {
+                try {
+                    token = objectMapper.readTree(response.body()).path("token").asText(null);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unreadable login response", e);
+                }
+            }
+        }
+
+        private HttpRequest.Builder get(String path) {
+            return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET());
+        }
+
+        private HttpRequest.Builder post(String path, String json) {
+            return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json)));
+        }
+
+        private HttpRequest.Builder authorized(HttpRequest.Builder request) {
+            if (token != null) request.header("Authorization", "Bearer " + token);
+            return request.timeout(Duration.ofSeconds(30));
+        }
+
+        private HttpResponse<byte[]> send(String endpoint, HttpRequest.Builder request,
+                                          Predicate<HttpResponse<byte[]>> ok) {
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = null;
+            String error;
+            try {
+                response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                error = ok.test(response) ? null : "HTTP " + response.statusCode();
+            } catch (IOException e) {
+                error = e.getClass().getSimpleName();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopped = true;
+                return null;
+            }
+            if (measuring) stats.computeIfAbsent(endpoint, k -> new EndpointStats()).record(System.nanoTime() - start, error);
+            return response;
+        }
+    }
+
+    // The checkout body the Flutter client sends: product references by id, no back links
+    private String toJson(Invoice invoice) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", invoice.getName());
+        body.put("email", invoice.getEmail());
+        body.put("phone", invoice.getPhone());
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (InvoiceItem item : invoice.getItems()) {
+            items.add(Map.of(
+                    "product", Map.of("id", item.getProduct().getId()),
+                    "quantity", item.getQuantity(),
+                    "priceAtSale", item.getPriceAtSale()));
+        }
+        body.put("items", items);
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.rahmatullahsaruk.stock_management.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Run settings, all overridable with -Dloadtest.<name>=<value>
+final class LoadTestConfig {
+
+    final int threads = Integer.getInteger("loadtest.threads", 16);
+    final int warmupSeconds = Integer.getInteger("loadtest.warmup", 15);
+    final int durationSeconds = Integer.getInteger("loadtest.duration", 60);
+    final int products = Integer.getInteger("loadtest.products", 500);
+    final int historyDays = Integer.getInteger("loadtest.history-days", 90);
+    final int invoicesPerDay = Integer.getInteger("loadtest.invoices-per-day", 40);
+    final long seed = Long.getLong("loadtest.seed", 20240501L);
+    final String report = System.getProperty("loadtest.report", "target/loadtest-report.txt");
+
+    // Share of requests per scenario, e.g. -Dloadtest.mix=checkout=40,catalog=35,dashboard=20,login=5
+    final Map<Scenario, Integer> mix = parseMix(System.getProperty("loadtest.mix",
+            "checkout=40,catalog=35,dashboard=20,login=5"));
+
+    enum Scenario { CHECKOUT, CATALOG, DASHBOARD, LOGIN }
+
+    private static Map<Scenario, Integer> parseMix(String spec) {
+        Map<Scenario, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) mix.put(Scenario.valueOf(kv[0].trim().toUpperCase()), weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("loadtest.mix has no scenario with weight > 0");
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return threads + " threads, " + warmupSeconds + "s warmup + " + durationSeconds + "s measured, "
+                + products + " products, " + historyDays + " days x " + invoicesPerDay + " invoices of history, mix " + mix;
+    }
+}
@@ -0,0 +1,119 @@
+package com.rahmatullahsaruk.stock_management.loadtest;
+
+import com.rahmatullahsaruk.stock_management.entity.Cashier;
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.entity.User;
+import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import com.rahmatullahsaruk.stock_management.repository.UserRepo;
+import com.rahmatullahsaruk.stock_management.service.AuthService;
+import com.rahmatullahsaruk.stock_management.service.InvoiceService;
+import org.springframework.context.ApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the database through the application's own services: a catalog, one cashier
+ * account per load thread, and an invoice history spread over the past days so the
+ * dashboard queries have real data to aggregate. Fixed seed, so every run starts equal.
+ */
+final class LoadTestData {
+
+    static final String PASSWORD = "loadtest-password";
+    static final int STOCK = 1_000_000_000; // never sells out during a run
+
+    private static final Product.Category[] CATEGORIES = Product.Category.values();
+
+    final List<Long> productIds = new ArrayList<>();
+    final List<Money> prices = new ArrayList<>();
+    final List<String> cashiers = new ArrayList<>();
+
+    private LoadTestData() {}
+
+    static LoadTestData seed(ApplicationContext context, LoadTestConfig config) {
+        LoadTestData data = new LoadTestData();
+        Random random = new Random(config.seed);
+
+        ProductRepo productRepo = context.getBean(ProductRepo.class);
+        List<Product> products = new ArrayList<>(config.products);
+        for (int i = 0; i < config.products; i++) {
+            Product p = new Product();
+            p.setName("Product " + i);
+            p.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            p.setBrand("Brand " + (i % 25));
+            p.setModel("M-" + (1000 + i));
+            p.setDetails("Load test product " + i);
+            p.setQuantity(STOCK);
+            p.setPrice(Money.ofCents(5_000 + random.nextInt(200_000)));
+            products.add(p);
+        }
+        for (Product p : productRepo.saveAll(products)) {
+            data.productIds.add(p.getId());
+            data.prices.add(p.getPrice());
+        }
+
+        AuthService authService = context.getBean(AuthService.class);
+        UserRepo userRepo = context.getBean(UserRepo.class);
+        for (int i = 0; i < config.threads; i++) {
+            User user = new User();
+            user.setName("Cashier " + i);
+            user.setEmail("cashier" + i + "@loadtest.local");
+            user.setPassword(PASSWORD);
+            Cashier cashier = new Cashier();
+            cashier.setName(user.getName());
+            cashier.setEmail(user.getEmail());
+            try {
+                authService.registerCashier(user, null, cashier);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            authService.activeUser(userRepo.findByEmail(user.getEmail()).orElseThrow().getId());
+            data.cashiers.add(user.getEmail());
+        }
+
+        InvoiceService invoiceService = context.getBean(InvoiceService.class);
+        LocalDate today = LocalDate.now();
+        for (int day = config.historyDays; day >= 1; day--) {
+            for (int n = 0; n < config.invoicesPerDay; n++) {
+                LocalDateTime at = today.minusDays(day).atTime(9, 0).plusSeconds(random.nextInt(12 * 3600));
+                Invoice invoice = data.invoice(random);
+                invoice.setDate(at);
+                invoiceService.save(invoice);
+            }
+        }
+        return data;
+    }
+
+    // Mostly small baskets with a long tail, like a shop counter
+    Invoice invoice(Random random) {
+        int lines = random.nextInt(10) < 8 ? 1 + random.nextInt(5) : 6 + random.nextInt(25);
+        int customer = random.nextInt(5_000);
+
+        Invoice invoice = new Invoice();
+        invoice.setName("Customer " + customer);
+        invoice.setEmail("customer" + customer + "@example.com");
+        invoice.setPhone("01700" + String.format("%06d", customer));
+
+        int start = random.nextInt(productIds.size());
+        for (int i = 0; i < lines; i++) {
+            int index = (start + i) % productIds.size();
+            Product ref = new Product();
+            ref.setId(productIds.get(index));
+
+            InvoiceItem item = new InvoiceItem();
+            item.setProduct(ref);
+            item.setQuantity(1 + random.nextInt(3));
+            item.setPriceAtSale(prices.get(index));
+            invoice.getItems().add(item);
+        }
+        return invoice;
+    }
+}
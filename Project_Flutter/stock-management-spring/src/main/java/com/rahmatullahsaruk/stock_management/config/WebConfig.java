@@ -1,4 +1,6 @@
 package com.rahmatullahsaruk.stock_management.config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
@@ -7,13 +9,15 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
     @Configuration
     public class WebConfig implements WebMvcConfigurer {
 
+        private static final Logger log = LoggerFactory.getLogger(WebConfig.class);
+
         @Value("${image.upload.dir}")
         private String uploadDir;
 
         @Override
         public void addResourceHandlers(ResourceHandlerRegistry registry) {
             // Log the value of uploadDir
-            System.out.println("Image upload directory: " + uploadDir);
+            log.info("Image upload directory: {}", uploadDir);
 
             registry.addResourceHandler("/images/**")
                     .addResourceLocations("file:" + uploadDir + "/");
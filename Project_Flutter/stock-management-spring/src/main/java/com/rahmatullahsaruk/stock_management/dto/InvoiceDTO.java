@@ -1,5 +1,7 @@
 package com.rahmatullahsaruk.stock_management.dto;
 
+import com.rahmatullahsaruk.stock_management.entity.Money;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -10,10 +12,10 @@ public class InvoiceDTO {
     private String name;
     private String email;
     private String phone;
-    private double subtotal;
-    private double discount;
-    private double total;
-    private double paid;
+    private Money subtotal;
+    private Money discount;
+    private Money total;
+    private Money paid;
     private String invoiceNumber;
 
     private List<InvoiceItemDTO> items;
@@ -36,17 +38,17 @@ public class InvoiceDTO {
     public String getPhone() { return phone; }
     public void setPhone(String phone) { this.phone = phone; }
 
-    public double getSubtotal() { return subtotal; }
-    public void setSubtotal(double subtotal) { this.subtotal = subtotal; }
+    public Money getSubtotal() { return subtotal; }
+    public void setSubtotal(Money subtotal) { this.subtotal = subtotal; }
 
-    public double getDiscount() { return discount; }
-    public void setDiscount(double discount) { this.discount = discount; }
+    public Money getDiscount() { return discount; }
+    public void setDiscount(Money discount) { this.discount = discount; }
 
-    public double getTotal() { return total; }
-    public void setTotal(double total) { this.total = total; }
+    public Money getTotal() { return total; }
+    public void setTotal(Money total) { this.total = total; }
 
-    public double getPaid() { return paid; }
-    public void setPaid(double paid) { this.paid = paid; }
+    public Money getPaid() { return paid; }
+    public void setPaid(Money paid) { this.paid = paid; }
 
     public String getInvoiceNumber() { return invoiceNumber; }
     public void setInvoiceNumber(String invoiceNumber) { this.invoiceNumber = invoiceNumber; }
@@ -0,0 +1,59 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+import com.rahmatullahsaruk.stock_management.entity.Money;
+
+import java.time.LocalDateTime;
+
+// One invoice line joined with its invoice header, read by a constructor-expression query.
+// Not an entity, so streamed rows never pile up in the persistence context.
+public class InvoiceExportRow {
+
+    private final Long invoiceId;
+    private final String invoiceNumber;
+    private final LocalDateTime date;
+    private final String name;
+    private final String email;
+    private final String phone;
+    private final Money subtotal;
+    private final Money discount;
+    private final Money total;
+    private final Money paid;
+    private final Long productId;
+    private final String productName;
+    private final Integer quantity;
+    private final Money priceAtSale;
+
+    public InvoiceExportRow(Long invoiceId, String invoiceNumber, LocalDateTime date, String name, String email,
+                            String phone, Money subtotal, Money discount, Money total, Money paid,
+                            Long productId, String productName, Integer quantity, Money priceAtSale) {
+        this.invoiceId = invoiceId;
+        this.invoiceNumber = invoiceNumber;
+        this.date = date;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.subtotal = subtotal;
+        this.discount = discount;
+        this.total = total;
+        this.paid = paid;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.priceAtSale = priceAtSale;
+    }
+
+    public Long getInvoiceId() { return invoiceId; }
+    public String getInvoiceNumber() { return invoiceNumber; }
+    public LocalDateTime getDate() { return date; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public String getPhone() { return phone; }
+    public Money getSubtotal() { return subtotal; }
+    public Money getDiscount() { return discount; }
+    public Money getTotal() { return total; }
+    public Money getPaid() { return paid; }
+    public Long getProductId() { return productId; }
+    public String getProductName() { return productName; }
+    public Integer getQuantity() { return quantity; }
+    public Money getPriceAtSale() { return priceAtSale; }
+}
@@ -1,11 +1,12 @@
 package com.rahmatullahsaruk.stock_management.dto;
 
+import com.rahmatullahsaruk.stock_management.entity.Money;
 
 public class InvoiceItemDTO {
     private Long productId;
     private String productName;
     private int quantity;
-    private double priceAtSale;
+    private Money priceAtSale;
 
     public InvoiceItemDTO() {}
 
@@ -18,6 +19,6 @@ public class InvoiceItemDTO {
     public int getQuantity() { return quantity; }
     public void setQuantity(int quantity) { this.quantity = quantity; }
 
-    public double getPriceAtSale() { return priceAtSale; }
-    public void setPriceAtSale(double priceAtSale) { this.priceAtSale = priceAtSale; }
+    public Money getPriceAtSale() { return priceAtSale; }
+    public void setPriceAtSale(Money priceAtSale) { this.priceAtSale = priceAtSale; }
 }
@@ -0,0 +1,24 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+import java.util.List;
+
+public class InvoicePageDTO {
+
+    private List<InvoiceDTO> items;
+    private String nextCursor; // null when this is the last page
+
+    public InvoicePageDTO() {}
+
+    public InvoicePageDTO(List<InvoiceDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<InvoiceDTO> getItems() { return items; }
+    public void setItems(List<InvoiceDTO> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return nextCursor != null; }
+}
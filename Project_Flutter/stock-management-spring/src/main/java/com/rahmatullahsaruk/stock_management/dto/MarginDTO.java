@@ -0,0 +1,55 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+
+// Gross margin of one product, or of a whole category when productId is null
+public class MarginDTO {
+
+    private Long productId;
+    private String name;
+    private Product.Category category;
+    private long unitsSold;
+    private Money revenue;
+    private Money cost;
+    private Money margin;
+    private Double marginPercent;   // of revenue; null when nothing was sold for money
+
+    public MarginDTO() {}
+
+    public MarginDTO(Long productId, String name, Product.Category category, long unitsSold,
+                     Money revenue, Money cost, Money margin, Double marginPercent) {
+        this.productId = productId;
+        this.name = name;
+        this.category = category;
+        this.unitsSold = unitsSold;
+        this.revenue = revenue;
+        this.cost = cost;
+        this.margin = margin;
+        this.marginPercent = marginPercent;
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Product.Category getCategory() { return category; }
+    public void setCategory(Product.Category category) { this.category = category; }
+
+    public long getUnitsSold() { return unitsSold; }
+    public void setUnitsSold(long unitsSold) { this.unitsSold = unitsSold; }
+
+    public Money getRevenue() { return revenue; }
+    public void setRevenue(Money revenue) { this.revenue = revenue; }
+
+    public Money getCost() { return cost; }
+    public void setCost(Money cost) { this.cost = cost; }
+
+    public Money getMargin() { return margin; }
+    public void setMargin(Money margin) { this.margin = margin; }
+
+    public Double getMarginPercent() { return marginPercent; }
+    public void setMarginPercent(Double marginPercent) { this.marginPercent = marginPercent; }
+}
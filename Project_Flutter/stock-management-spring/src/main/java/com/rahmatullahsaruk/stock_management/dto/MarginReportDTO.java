@@ -0,0 +1,45 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+import com.rahmatullahsaruk.stock_management.entity.Money;
+
+import java.util.List;
+
+public class MarginReportDTO {
+
+    private Money revenue;          // line revenue, before invoice-level discounts
+    private Money cost;             // cost of goods sold
+    private Money margin;
+    private Double marginPercent;
+    private List<MarginDTO> categories;
+    private List<MarginDTO> products;   // highest margin first
+
+    public MarginReportDTO() {}
+
+    public MarginReportDTO(Money revenue, Money cost, Money margin, Double marginPercent,
+                           List<MarginDTO> categories, List<MarginDTO> products) {
+        this.revenue = revenue;
+        this.cost = cost;
+        this.margin = margin;
+        this.marginPercent = marginPercent;
+        this.categories = categories;
+        this.products = products;
+    }
+
+    public Money getRevenue() { return revenue; }
+    public void setRevenue(Money revenue) { this.revenue = revenue; }
+
+    public Money getCost() { return cost; }
+    public void setCost(Money cost) { this.cost = cost; }
+
+    public Money getMargin() { return margin; }
+    public void setMargin(Money margin) { this.margin = margin; }
+
+    public Double getMarginPercent() { return marginPercent; }
+    public void setMarginPercent(Double marginPercent) { this.marginPercent = marginPercent; }
+
+    public List<MarginDTO> getCategories() { return categories; }
+    public void setCategories(List<MarginDTO> categories) { this.categories = categories; }
+
+    public List<MarginDTO> getProducts() { return products; }
+    public void setProducts(List<MarginDTO> products) { this.products = products; }
+}
@@ -1,15 +1,17 @@
 package com.rahmatullahsaruk.stock_management.dto;
 
+import com.rahmatullahsaruk.stock_management.entity.Money;
+
 public class MonthlyProfitDTO {
 
     private int month;       // 1..12
-    private double revenue;
-    private double expenses;
-    private double profit;
+    private Money revenue;
+    private Money expenses;
+    private Money profit;
 
     public MonthlyProfitDTO() {}
 
-    public MonthlyProfitDTO(int month, double revenue, double expenses, double profit) {
+    public MonthlyProfitDTO(int month, Money revenue, Money expenses, Money profit) {
         this.month = month;
         this.revenue = revenue;
         this.expenses = expenses;
@@ -20,15 +22,15 @@ public class MonthlyProfitDTO {
         return month;
     }
 
-    public double getRevenue() {
+    public Money getRevenue() {
         return revenue;
     }
 
-    public double getExpenses() {
+    public Money getExpenses() {
         return expenses;
     }
 
-    public double getProfit() {
+    public Money getProfit() {
         return profit;
     }
 
@@ -36,15 +38,15 @@ public class MonthlyProfitDTO {
         this.month = month;
     }
 
-    public void setRevenue(double revenue) {
+    public void setRevenue(Money revenue) {
         this.revenue = revenue;
     }
 
-    public void setExpenses(double expenses) {
+    public void setExpenses(Money expenses) {
         this.expenses = expenses;
     }
 
-    public void setProfit(double profit) {
+    public void setProfit(Money profit) {
         this.profit = profit;
     }
 }
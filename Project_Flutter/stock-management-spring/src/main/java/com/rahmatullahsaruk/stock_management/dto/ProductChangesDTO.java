@@ -0,0 +1,34 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+import java.util.List;
+
+// Reply to GET /api/product/changes; the client stores "version" and sends it back as "since"
+public class ProductChangesDTO {
+
+    private long version;
+    private boolean full;
+    private List<ProductDTO> products;
+    private List<Long> deleted;
+
+    public ProductChangesDTO() {}
+
+    public ProductChangesDTO(long version, boolean full, List<ProductDTO> products, List<Long> deleted) {
+        this.version = version;
+        this.full = full;
+        this.products = products;
+        this.deleted = deleted;
+    }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    // true when "products" is the whole catalog and the client should drop anything not in it
+    public boolean isFull() { return full; }
+    public void setFull(boolean full) { this.full = full; }
+
+    public List<ProductDTO> getProducts() { return products; }
+    public void setProducts(List<ProductDTO> products) { this.products = products; }
+
+    public List<Long> getDeleted() { return deleted; }
+    public void setDeleted(List<Long> deleted) { this.deleted = deleted; }
+}
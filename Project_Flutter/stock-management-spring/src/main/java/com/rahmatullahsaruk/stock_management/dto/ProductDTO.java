@@ -1,6 +1,7 @@
 package com.rahmatullahsaruk.stock_management.dto;
 
 
+import com.rahmatullahsaruk.stock_management.entity.Money;
 import com.rahmatullahsaruk.stock_management.entity.Product;
 
 public class ProductDTO {
@@ -12,12 +13,16 @@ public class ProductDTO {
     private String model;
     private String details;
     private int quantity;
-    private double price;
+    private Money price;
+    private Money cost;
+    private Integer lowThreshold;
+    private Integer maxCapacity;
+    private Long supplierId;
 
     public ProductDTO() {}
 
     public ProductDTO(Long id, String name, Product.Category category, String brand, String model, String details,
-                      int quantity, double price) {
+                      int quantity, Money price) {
         this.id = id;
         this.name = name;
         this.category = category;
@@ -50,11 +55,23 @@ public class ProductDTO {
     public int getQuantity() { return quantity; }
     public void setQuantity(int quantity) { this.quantity = quantity; }
 
-    public double getPrice() { return price; }
-    public void setPrice(double price) { this.price = price; }
+    public Money getPrice() { return price; }
+    public void setPrice(Money price) { this.price = price; }
+
+    public Money getCost() { return cost; }
+    public void setCost(Money cost) { this.cost = cost; }
+
+    public Integer getLowThreshold() { return lowThreshold; }
+    public void setLowThreshold(Integer lowThreshold) { this.lowThreshold = lowThreshold; }
+
+    public Integer getMaxCapacity() { return maxCapacity; }
+    public void setMaxCapacity(Integer maxCapacity) { this.maxCapacity = maxCapacity; }
+
+    public Long getSupplierId() { return supplierId; }
+    public void setSupplierId(Long supplierId) { this.supplierId = supplierId; }
 
     // --- Utility ---
-    public double getTotalPrice() {
-        return price * quantity;
+    public Money getTotalPrice() {
+        return price.times(quantity);
     }
 }
@@ -0,0 +1,30 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+public class ProductSalesDTO {
+
+    private Long productId;
+    private String name;
+    private int quantity;       // on hand now
+    private long unitsSold;     // within the window
+
+    public ProductSalesDTO() {}
+
+    public ProductSalesDTO(Long productId, String name, int quantity, long unitsSold) {
+        this.productId = productId;
+        this.name = name;
+        this.quantity = quantity;
+        this.unitsSold = unitsSold;
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public long getUnitsSold() { return unitsSold; }
+    public void setUnitsSold(long unitsSold) { this.unitsSold = unitsSold; }
+}
@@ -0,0 +1,97 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+import com.rahmatullahsaruk.stock_management.entity.Money;
+
+import java.time.LocalDate;
+
+public class ProfitBucketDTO {
+
+    private LocalDate start;    // inclusive
+    private LocalDate end;      // exclusive
+    private Money revenue;
+    private Money expenses;
+    private Money profit;
+
+    // Year over year: change against the bucket holding the same date one year earlier
+    private Money revenueChange;
+    private Money profitChange;
+    private Double profitChangePercent;  // null when last year's profit was zero
+
+    public ProfitBucketDTO() {}
+
+    public ProfitBucketDTO(LocalDate start, LocalDate end, Money revenue, Money expenses, Money profit,
+                           Money revenueChange, Money profitChange, Double profitChangePercent) {
+        this.start = start;
+        this.end = end;
+        this.revenue = revenue;
+        this.expenses = expenses;
+        this.profit = profit;
+        this.revenueChange = revenueChange;
+        this.profitChange = profitChange;
+        this.profitChangePercent = profitChangePercent;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    public Money getRevenue() {
+        return revenue;
+    }
+
+    public Money getExpenses() {
+        return expenses;
+    }
+
+    public Money getProfit() {
+        return profit;
+    }
+
+    public Money getRevenueChange() {
+        return revenueChange;
+    }
+
+    public Money getProfitChange() {
+        return profitChange;
+    }
+
+    public Double getProfitChangePercent() {
+        return profitChangePercent;
+    }
+
+    public void setStart(LocalDate start) {
+        this.start = start;
+    }
+
+    public void setEnd(LocalDate end) {
+        this.end = end;
+    }
+
+    public void setRevenue(Money revenue) {
+        this.revenue = revenue;
+    }
+
+    public void setExpenses(Money expenses) {
+        this.expenses = expenses;
+    }
+
+    public void setProfit(Money profit) {
+        this.profit = profit;
+    }
+
+    public void setRevenueChange(Money revenueChange) {
+        this.revenueChange = revenueChange;
+    }
+
+    public void setProfitChange(Money profitChange) {
+        this.profitChange = profitChange;
+    }
+
+    public void setProfitChangePercent(Double profitChangePercent) {
+        this.profitChangePercent = profitChangePercent;
+    }
+}
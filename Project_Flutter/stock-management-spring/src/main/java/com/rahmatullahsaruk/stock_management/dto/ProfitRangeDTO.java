@@ -0,0 +1,64 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+import com.rahmatullahsaruk.stock_management.entity.Money;
+
+import java.util.List;
+
+public class ProfitRangeDTO {
+
+    private String bucket;   // DAY, WEEK, MONTH, QUARTER or YEAR
+    private Money revenue;   // totals over all buckets
+    private Money expenses;
+    private Money profit;
+    private List<ProfitBucketDTO> buckets;
+
+    public ProfitRangeDTO() {}
+
+    public ProfitRangeDTO(String bucket, Money revenue, Money expenses, Money profit, List<ProfitBucketDTO> buckets) {
+        this.bucket = bucket;
+        this.revenue = revenue;
+        this.expenses = expenses;
+        this.profit = profit;
+        this.buckets = buckets;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public Money getRevenue() {
+        return revenue;
+    }
+
+    public Money getExpenses() {
+        return expenses;
+    }
+
+    public Money getProfit() {
+        return profit;
+    }
+
+    public List<ProfitBucketDTO> getBuckets() {
+        return buckets;
+    }
+
+    public void setBucket(String bucket) {
+        this.bucket = bucket;
+    }
+
+    public void setRevenue(Money revenue) {
+        this.revenue = revenue;
+    }
+
+    public void setExpenses(Money expenses) {
+        this.expenses = expenses;
+    }
+
+    public void setProfit(Money profit) {
+        this.profit = profit;
+    }
+
+    public void setBuckets(List<ProfitBucketDTO> buckets) {
+        this.buckets = buckets;
+    }
+}
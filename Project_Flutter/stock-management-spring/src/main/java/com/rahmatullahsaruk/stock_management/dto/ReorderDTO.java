@@ -0,0 +1,56 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+public class ReorderDTO {
+
+    private Long productId;
+    private String name;
+    private Long supplierId;
+    private int quantity;           // on hand now
+    private double dailyDemand;     // forecast units per day, averaged over the next week
+    private int leadTimeDays;
+    private long safetyStock;
+    private long reorderPoint;      // order when on hand falls to this
+    private long suggestedOrder;    // units to order now; zero above the reorder point
+
+    public ReorderDTO() {}
+
+    public ReorderDTO(Long productId, String name, Long supplierId, int quantity, double dailyDemand,
+                      int leadTimeDays, long safetyStock, long reorderPoint, long suggestedOrder) {
+        this.productId = productId;
+        this.name = name;
+        this.supplierId = supplierId;
+        this.quantity = quantity;
+        this.dailyDemand = dailyDemand;
+        this.leadTimeDays = leadTimeDays;
+        this.safetyStock = safetyStock;
+        this.reorderPoint = reorderPoint;
+        this.suggestedOrder = suggestedOrder;
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Long getSupplierId() { return supplierId; }
+    public void setSupplierId(Long supplierId) { this.supplierId = supplierId; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public double getDailyDemand() { return dailyDemand; }
+    public void setDailyDemand(double dailyDemand) { this.dailyDemand = dailyDemand; }
+
+    public int getLeadTimeDays() { return leadTimeDays; }
+    public void setLeadTimeDays(int leadTimeDays) { this.leadTimeDays = leadTimeDays; }
+
+    public long getSafetyStock() { return safetyStock; }
+    public void setSafetyStock(long safetyStock) { this.safetyStock = safetyStock; }
+
+    public long getReorderPoint() { return reorderPoint; }
+    public void setReorderPoint(long reorderPoint) { this.reorderPoint = reorderPoint; }
+
+    public long getSuggestedOrder() { return suggestedOrder; }
+    public void setSuggestedOrder(long suggestedOrder) { this.suggestedOrder = suggestedOrder; }
+}
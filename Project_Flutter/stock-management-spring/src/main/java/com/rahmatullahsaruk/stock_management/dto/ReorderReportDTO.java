@@ -0,0 +1,22 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+import java.util.List;
+
+public class ReorderReportDTO {
+
+    private List<ReorderDTO> products;             // most urgent first: furthest below the reorder point
+    private List<SupplierReorderDTO> suppliers;    // largest estimated order first
+
+    public ReorderReportDTO() {}
+
+    public ReorderReportDTO(List<ReorderDTO> products, List<SupplierReorderDTO> suppliers) {
+        this.products = products;
+        this.suppliers = suppliers;
+    }
+
+    public List<ReorderDTO> getProducts() { return products; }
+    public void setProducts(List<ReorderDTO> products) { this.products = products; }
+
+    public List<SupplierReorderDTO> getSuppliers() { return suppliers; }
+    public void setSuppliers(List<SupplierReorderDTO> suppliers) { this.suppliers = suppliers; }
+}
@@ -1,27 +1,28 @@
 package com.rahmatullahsaruk.stock_management.dto;
 
+import com.rahmatullahsaruk.stock_management.entity.Money;
 
 public class SalesSummaryDTO {
 
 
-    private Double today;
-    private Double last7Days;
-    private Double last30Days;
+    private Money today;
+    private Money last7Days;
+    private Money last30Days;
 
-    public SalesSummaryDTO(Double today, Double last7Days, Double last30Days) {
+    public SalesSummaryDTO(Money today, Money last7Days, Money last30Days) {
         this.today = today;
         this.last7Days = last7Days;
         this.last30Days = last30Days;
     }
 
-    public Double getToday() { return today; }
-    public void setToday(Double today) { this.today = today; }
+    public Money getToday() { return today; }
+    public void setToday(Money today) { this.today = today; }
 
-    public Double getLast7Days() { return last7Days; }
-    public void setLast7Days(Double last7Days) { this.last7Days = last7Days; }
+    public Money getLast7Days() { return last7Days; }
+    public void setLast7Days(Money last7Days) { this.last7Days = last7Days; }
 
-    public Double getLast30Days() { return last30Days; }
-    public void setLast30Days(Double last30Days) { this.last30Days = last30Days; }
+    public Money getLast30Days() { return last30Days; }
+    public void setLast30Days(Money last30Days) { this.last30Days = last30Days; }
 
 
 }
\ No newline at end of file
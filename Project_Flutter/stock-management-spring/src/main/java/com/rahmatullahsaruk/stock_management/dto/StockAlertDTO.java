@@ -0,0 +1,38 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+// A product at or past one of its stock thresholds, or a transition into / out of that state
+public class StockAlertDTO {
+
+    public enum Type { LOW_STOCK, LOW_STOCK_CLEARED, OVERSTOCK, OVERSTOCK_CLEARED }
+
+    private Long productId;
+    private String productName;
+    private int quantity;
+    private int threshold;
+    private Type type;
+
+    public StockAlertDTO() {}
+
+    public StockAlertDTO(Long productId, String productName, int quantity, int threshold, Type type) {
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.threshold = threshold;
+        this.type = type;
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public int getThreshold() { return threshold; }
+    public void setThreshold(int threshold) { this.threshold = threshold; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+}
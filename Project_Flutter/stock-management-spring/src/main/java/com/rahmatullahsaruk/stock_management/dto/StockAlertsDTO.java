@@ -0,0 +1,23 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+import java.util.List;
+
+// Reply to GET /api/product/alerts, most urgent first in each list
+public class StockAlertsDTO {
+
+    private List<StockAlertDTO> lowStock;
+    private List<StockAlertDTO> overstock;
+
+    public StockAlertsDTO() {}
+
+    public StockAlertsDTO(List<StockAlertDTO> lowStock, List<StockAlertDTO> overstock) {
+        this.lowStock = lowStock;
+        this.overstock = overstock;
+    }
+
+    public List<StockAlertDTO> getLowStock() { return lowStock; }
+    public void setLowStock(List<StockAlertDTO> lowStock) { this.lowStock = lowStock; }
+
+    public List<StockAlertDTO> getOverstock() { return overstock; }
+    public void setOverstock(List<StockAlertDTO> overstock) { this.overstock = overstock; }
+}
@@ -0,0 +1,36 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+// One entry of a "stock" event on /api/product/stream
+public class StockLevelDTO {
+
+    private Long productId;
+    private int quantity;
+    private long changeSeq;
+    private boolean deleted;
+
+    public StockLevelDTO() {}
+
+    public StockLevelDTO(Long productId, int quantity, long changeSeq) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.changeSeq = changeSeq;
+    }
+
+    public static StockLevelDTO deleted(Long productId) {
+        StockLevelDTO dto = new StockLevelDTO(productId, 0, 0);
+        dto.deleted = true;
+        return dto;
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(long changeSeq) { this.changeSeq = changeSeq; }
+
+    public boolean isDeleted() { return deleted; }
+    public void setDeleted(boolean deleted) { this.deleted = deleted; }
+}
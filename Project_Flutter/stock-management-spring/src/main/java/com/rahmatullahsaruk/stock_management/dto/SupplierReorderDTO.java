@@ -0,0 +1,43 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+import com.rahmatullahsaruk.stock_management.entity.Money;
+
+public class SupplierReorderDTO {
+
+    private Long supplierId;
+    private String companyName;
+    private int leadTimeDays;
+    private int products;           // products at or below their reorder point
+    private long units;             // suggested units across them
+    private Money estimatedCost;    // suggested units at current product cost
+
+    public SupplierReorderDTO() {}
+
+    public SupplierReorderDTO(Long supplierId, String companyName, int leadTimeDays,
+                              int products, long units, Money estimatedCost) {
+        this.supplierId = supplierId;
+        this.companyName = companyName;
+        this.leadTimeDays = leadTimeDays;
+        this.products = products;
+        this.units = units;
+        this.estimatedCost = estimatedCost;
+    }
+
+    public Long getSupplierId() { return supplierId; }
+    public void setSupplierId(Long supplierId) { this.supplierId = supplierId; }
+
+    public String getCompanyName() { return companyName; }
+    public void setCompanyName(String companyName) { this.companyName = companyName; }
+
+    public int getLeadTimeDays() { return leadTimeDays; }
+    public void setLeadTimeDays(int leadTimeDays) { this.leadTimeDays = leadTimeDays; }
+
+    public int getProducts() { return products; }
+    public void setProducts(int products) { this.products = products; }
+
+    public long getUnits() { return units; }
+    public void setUnits(long units) { this.units = units; }
+
+    public Money getEstimatedCost() { return estimatedCost; }
+    public void setEstimatedCost(Money estimatedCost) { this.estimatedCost = estimatedCost; }
+}
@@ -0,0 +1,27 @@
+package com.rahmatullahsaruk.stock_management.dto;
+
+import java.util.List;
+
+public class TopProductsDTO {
+
+    private int windowDays;
+    private List<ProductSalesDTO> bestSellers;   // most units first, only products that sold
+    private List<ProductSalesDTO> slowMovers;    // fewest units first, only products in stock
+
+    public TopProductsDTO() {}
+
+    public TopProductsDTO(int windowDays, List<ProductSalesDTO> bestSellers, List<ProductSalesDTO> slowMovers) {
+        this.windowDays = windowDays;
+        this.bestSellers = bestSellers;
+        this.slowMovers = slowMovers;
+    }
+
+    public int getWindowDays() { return windowDays; }
+    public void setWindowDays(int windowDays) { this.windowDays = windowDays; }
+
+    public List<ProductSalesDTO> getBestSellers() { return bestSellers; }
+    public void setBestSellers(List<ProductSalesDTO> bestSellers) { this.bestSellers = bestSellers; }
+
+    public List<ProductSalesDTO> getSlowMovers() { return slowMovers; }
+    public void setSlowMovers(List<ProductSalesDTO> slowMovers) { this.slowMovers = slowMovers; }
+}
@@ -1,15 +1,17 @@
 package com.rahmatullahsaruk.stock_management.dto;
 
+import com.rahmatullahsaruk.stock_management.entity.Money;
+
 public class YearProfitSummaryDTO {
 
     private int year;
-    private double revenue;
-    private double expenses;
-    private double profit;
+    private Money revenue;
+    private Money expenses;
+    private Money profit;
 
     public YearProfitSummaryDTO() {}
 
-    public YearProfitSummaryDTO(int year, double revenue, double expenses, double profit) {
+    public YearProfitSummaryDTO(int year, Money revenue, Money expenses, Money profit) {
         this.year = year;
         this.revenue = revenue;
         this.expenses = expenses;
@@ -20,15 +22,15 @@ public class YearProfitSummaryDTO {
         return year;
     }
 
-    public double getRevenue() {
+    public Money getRevenue() {
         return revenue;
     }
 
-    public double getExpenses() {
+    public Money getExpenses() {
         return expenses;
     }
 
-    public double getProfit() {
+    public Money getProfit() {
         return profit;
     }
 
@@ -36,15 +38,15 @@ public class YearProfitSummaryDTO {
         this.year = year;
     }
 
-    public void setRevenue(double revenue) {
+    public void setRevenue(Money revenue) {
         this.revenue = revenue;
     }
 
-    public void setExpenses(double expenses) {
+    public void setExpenses(Money expenses) {
         this.expenses = expenses;
     }
 
-    public void setProfit(double profit) {
+    public void setProfit(Money profit) {
         this.profit = profit;
     }
 }
@@ -0,0 +1,38 @@
+package com.rahmatullahsaruk.stock_management.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// One row per calendar day; kept in step with invoices by SalesRollupService
+@Entity
+@Table(name = "daily_sales_rollup")
+public class DailySalesRollup {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Column(name = "revenue_cents", nullable = false)
+    private long revenueCents;
+
+    @Column(name = "item_count", nullable = false)
+    private long itemCount;
+
+    @Column(name = "invoice_count", nullable = false)
+    private long invoiceCount;
+
+    public DailySalesRollup() {}
+
+    public LocalDate getSalesDate() { return salesDate; }
+    public void setSalesDate(LocalDate salesDate) { this.salesDate = salesDate; }
+
+    public long getRevenueCents() { return revenueCents; }
+    public void setRevenueCents(long revenueCents) { this.revenueCents = revenueCents; }
+
+    public long getItemCount() { return itemCount; }
+    public void setItemCount(long itemCount) { this.itemCount = itemCount; }
+
+    public long getInvoiceCount() { return invoiceCount; }
+    public void setInvoiceCount(long invoiceCount) { this.invoiceCount = invoiceCount; }
+}
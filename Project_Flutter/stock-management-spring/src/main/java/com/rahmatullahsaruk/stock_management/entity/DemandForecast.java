@@ -0,0 +1,68 @@
+package com.rahmatullahsaruk.stock_management.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// Demand model of one product: daily level plus a weekly season, fitted by ForecastService
+@Entity
+@Table(name = "demand_forecast")
+public class DemandForecast {
+
+    public static final int SEASON = 7;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    // Every day up to and including this one is in the model
+    @Column(name = "last_folded_day", nullable = false)
+    private LocalDate lastFoldedDay;
+
+    // Units already read for the day after lastFoldedDay, which is not over yet
+    @Column(name = "pending_units", nullable = false)
+    private long pendingUnits;
+
+    @Column(name = "days_observed", nullable = false)
+    private int daysObserved;
+
+    @Column(nullable = false)
+    private double level;
+
+    // Additive offset per weekday, indexed by epoch day mod 7
+    @Convert(converter = DoubleArrayConverter.class)
+    @Column(nullable = false, length = 200)
+    private double[] season = new double[SEASON];
+
+    // Smoothed squared one-day-ahead error
+    @Column(name = "error_variance", nullable = false)
+    private double errorVariance;
+
+    public DemandForecast() {}
+
+    public DemandForecast(Long productId, LocalDate lastFoldedDay) {
+        this.productId = productId;
+        this.lastFoldedDay = lastFoldedDay;
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public LocalDate getLastFoldedDay() { return lastFoldedDay; }
+    public void setLastFoldedDay(LocalDate lastFoldedDay) { this.lastFoldedDay = lastFoldedDay; }
+
+    public long getPendingUnits() { return pendingUnits; }
+    public void setPendingUnits(long pendingUnits) { this.pendingUnits = pendingUnits; }
+
+    public int getDaysObserved() { return daysObserved; }
+    public void setDaysObserved(int daysObserved) { this.daysObserved = daysObserved; }
+
+    public double getLevel() { return level; }
+    public void setLevel(double level) { this.level = level; }
+
+    public double[] getSeason() { return season; }
+    public void setSeason(double[] season) { this.season = season; }
+
+    public double getErrorVariance() { return errorVariance; }
+    public void setErrorVariance(double errorVariance) { this.errorVariance = errorVariance; }
+}
@@ -0,0 +1,29 @@
+package com.rahmatullahsaruk.stock_management.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+
+// A short double[] as comma-separated text; Double.toString round-trips exactly
+@Converter
+public class DoubleArrayConverter implements AttributeConverter<double[], String> {
+
+    @Override
+    public String convertToDatabaseColumn(double[] values) {
+        if (values == null) return null;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public double[] convertToEntityAttribute(String text) {
+        if (text == null) return null;
+        if (text.isEmpty()) return new double[0];
+        return Arrays.stream(text.split(",")).mapToDouble(Double::parseDouble).toArray();
+    }
+}
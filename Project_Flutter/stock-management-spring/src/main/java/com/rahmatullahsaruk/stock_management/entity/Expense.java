@@ -1,12 +1,16 @@
 package com.rahmatullahsaruk.stock_management.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "expense")
+@Table(name = "expense", indexes = {
+        // Covers the date-range sums: the range seek and the amounts come from the index
+        @Index(name = "idx_expense_date_amount", columnList = "date, amount_cents")
+})
 public class Expense {
 
     @Id
@@ -28,16 +32,15 @@ public class Expense {
     private String description;
 
     @NotNull
-    @Positive(message = "Amount must be > 0")
-    @Column(nullable = false) // precision/scale not useful for DOUBLE
-    private Double amount;
+    @Column(name = "amount_cents", nullable = false)
+    private Money amount;
 
     @Size(max = 255)
     private String addedBy;
 
     protected Expense() {}
 
-    public Expense(LocalDate date, String title, String description, Double amount, String addedBy) {
+    public Expense(LocalDate date, String title, String description, Money amount, String addedBy) {
         this.date = date;
         this.title = title;
         this.description = description;
@@ -54,8 +57,12 @@ public class Expense {
     public void setTitle(String title) { this.title = title; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
-    public Double getAmount() { return amount; }
-    public void setAmount(Double amount) { this.amount = amount; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
+
+    @JsonIgnore
+    @AssertTrue(message = "Amount must be > 0")
+    public boolean isAmountPositive() { return amount == null || amount.isPositive(); }
     public String getAddedBy() { return addedBy; }
     public void setAddedBy(String addedBy) { this.addedBy = addedBy; }
 }
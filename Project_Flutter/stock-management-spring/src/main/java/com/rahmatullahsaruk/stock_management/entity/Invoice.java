@@ -8,7 +8,18 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "invoices")
+// Invoice + items + each item's product, loaded in a single SELECT
+@NamedEntityGraph(
+        name = "Invoice.itemsWithProduct",
+        attributeNodes = @NamedAttributeNode(value = "items", subgraph = "items"),
+        subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product"))
+)
+@Table(name = "invoices", indexes = {
+        // Backs the (date, id) keyset used by the invoice listing and the date-range sums
+        @Index(name = "idx_invoices_date_id", columnList = "date, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_invoices_invoice_number", columnNames = "invoice_number")
+})
 public class Invoice {
 
     @Id
@@ -19,10 +30,15 @@ public class Invoice {
     private String name;
     private String email;
     private String phone;
-    private double subtotal;
-    private double discount;
-    private double total;
-    private double paid;
+    @Column(name = "subtotal_cents", nullable = false)
+    private Money subtotal = Money.ZERO;
+    @Column(name = "discount_cents", nullable = false)
+    private Money discount = Money.ZERO;
+    @Column(name = "total_cents", nullable = false)
+    private Money total = Money.ZERO;
+    @Column(name = "paid_cents", nullable = false)
+    private Money paid = Money.ZERO;
+    @Column(name = "invoice_number")
     private String invoiceNumber;
 
     @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -47,17 +63,19 @@ public class Invoice {
     public String getPhone() { return phone; }
     public void setPhone(String phone) { this.phone = phone; }
 
-    public double getSubtotal() { return subtotal; }
-    public void setSubtotal(double subtotal) { this.subtotal = subtotal; }
+    public Money getSubtotal() { return subtotal; }
+    public void setSubtotal(Money subtotal) { this.subtotal = orZero(subtotal); }
 
-    public double getDiscount() { return discount; }
-    public void setDiscount(double discount) { this.discount = discount; }
+    public Money getDiscount() { return discount; }
+    public void setDiscount(Money discount) { this.discount = orZero(discount); }
 
-    public double getTotal() { return total; }
-    public void setTotal(double total) { this.total = total; }
+    public Money getTotal() { return total; }
+    public void setTotal(Money total) { this.total = orZero(total); }
 
-    public double getPaid() { return paid; }
-    public void setPaid(double paid) { this.paid = paid; }
+    public Money getPaid() { return paid; }
+    public void setPaid(Money paid) { this.paid = orZero(paid); }
+
+    private static Money orZero(Money m) { return m == null ? Money.ZERO : m; }
 
     public String getInvoiceNumber() { return invoiceNumber; }
     public void setInvoiceNumber(String invoiceNumber) { this.invoiceNumber = invoiceNumber; }
@@ -65,11 +83,13 @@ public class Invoice {
     public List<InvoiceItem> getItems() { return items; }
     public void setItems(List<InvoiceItem> items) { this.items = items; }
 
-    // 🔁 Updated total calculator using InvoiceItem
+    // 🔁 Updated total calculator using InvoiceItem; exact, in cents
     public void calculateTotals() {
-        this.subtotal = items.stream()
-                .mapToDouble(i -> i.getPriceAtSale() * i.getQuantity())
-                .sum();
-        this.total = subtotal - discount;
+        long cents = 0;
+        for (InvoiceItem i : items) {
+            cents = Math.addExact(cents, Math.multiplyExact(i.getPriceAtSale().cents(), (long) i.getQuantity()));
+        }
+        this.subtotal = Money.ofCents(cents);
+        this.total = subtotal.minus(discount);
     }
 }
@@ -1,5 +1,6 @@
 package com.rahmatullahsaruk.stock_management.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 @Entity
@@ -9,16 +10,25 @@ public class InvoiceItem {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "invoice_id")
     private Invoice invoice;
 
-    @ManyToOne
+    // Lazy: readers that need the product ask for it through an entity graph
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private Product product;
 
     private int quantity;
-    private double priceAtSale;
+
+    // Zero when the client leaves it out; the product's current price is used then
+    @Column(name = "price_at_sale_cents", nullable = false)
+    private Money priceAtSale = Money.ZERO;
+
+    // Product cost when sold; always taken from the product, never from the client
+    @JsonIgnore
+    @Column(name = "cost_at_sale_cents", nullable = false)
+    private Money costAtSale = Money.ZERO;
 
     // Getters and Setters
 
@@ -26,7 +36,7 @@ public class InvoiceItem {
     public InvoiceItem() {
     }
 
-    public InvoiceItem(Long id, Invoice invoice, Product product, int quantity, double priceAtSale) {
+    public InvoiceItem(Long id, Invoice invoice, Product product, int quantity, Money priceAtSale) {
         this.id = id;
         this.invoice = invoice;
         this.product = product;
@@ -68,12 +78,20 @@ public class InvoiceItem {
         this.quantity = quantity;
     }
 
-    public double getPriceAtSale() {
+    public Money getPriceAtSale() {
         return priceAtSale;
     }
 
-    public void setPriceAtSale(double priceAtSale) {
-        this.priceAtSale = priceAtSale;
+    public void setPriceAtSale(Money priceAtSale) {
+        this.priceAtSale = priceAtSale == null ? Money.ZERO : priceAtSale;
+    }
+
+    public Money getCostAtSale() {
+        return costAtSale;
+    }
+
+    public void setCostAtSale(Money costAtSale) {
+        this.costAtSale = costAtSale == null ? Money.ZERO : costAtSale;
     }
 
 
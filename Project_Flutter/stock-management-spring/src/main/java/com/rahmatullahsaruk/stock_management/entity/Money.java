@@ -0,0 +1,82 @@
+package com.rahmatullahsaruk.stock_management.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a whole number of cents (minor units). Arithmetic is exact
+ * integer arithmetic; totals never drift the way sums of doubles do.
+ *
+ * Stored as a BIGINT of cents by {@link MoneyConverter}. In JSON it is a plain decimal
+ * number ({@code 12.5} in, {@code 12.50} out), so API clients see no difference.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    // Rounds half up to whole cents
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return ofCents(amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact());
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    public long cents() { return cents; }
+
+    @JsonValue
+    public BigDecimal toDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(long quantity) {
+        return ofCents(Math.multiplyExact(cents, quantity));
+    }
+
+    public boolean isPositive() { return cents > 0; }
+
+    public boolean isNegative() { return cents < 0; }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money m && m.cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.rahmatullahsaruk.stock_management.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Every Money attribute is a BIGINT column of cents. The Long is not extra boxing: Hibernate
+// reads, binds and keeps the loaded state of every basic value as an Object, so a primitive
+// long field (or an @Embeddable holding one) would be boxed at the same points.
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.cents();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long cents) {
+        return cents == null ? null : Money.ofCents(cents);
+    }
+}
@@ -0,0 +1,31 @@
+package com.rahmatullahsaruk.stock_management.entity;
+
+import jakarta.persistence.*;
+
+// A named counter shared by all app instances: invoice number blocks (InvoiceNumberService),
+// product change sequences (ProductChangeService) or a job's resume point (ForecastService)
+@Entity
+@Table(name = "number_sequence")
+public class NumberSequence {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    // First value not yet handed to any instance
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+
+    public NumberSequence() {}
+
+    public NumberSequence(String name, long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getNextValue() { return nextValue; }
+    public void setNextValue(long nextValue) { this.nextValue = nextValue; }
+}
@@ -3,7 +3,10 @@ package com.rahmatullahsaruk.stock_management.entity;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "product")
+@Table(name = "product", indexes = {
+        // Backs the "changed since" scan used by catalog delta sync
+        @Index(name = "idx_product_change_seq", columnList = "change_seq")
+})
 public class Product {
 
     @Id
@@ -25,8 +28,27 @@ public class Product {
     @Column(nullable = false)
     private int quantity;
 
-    @Column(nullable = false)
-    private double price;
+    @Column(name = "price_cents", nullable = false)
+    private Money price = Money.ZERO;
+
+    // What one unit costs to buy in; snapshotted onto each invoice line for margin
+    @Column(name = "cost_cents", nullable = false)
+    private Money cost = Money.ZERO;
+
+    // Per-product alert thresholds; null means the configured default
+    @Column(name = "low_threshold")
+    private Integer lowThreshold;
+
+    @Column(name = "max_capacity")
+    private Integer maxCapacity;
+
+    // Who it is bought from; a plain id so serialized products never drag a supplier proxy along
+    @Column(name = "supplier_id")
+    private Long supplierId;
+
+    // Change sequence of the last committed insert/update; see ProductChangeService
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
 
     public enum Category {
         Laptop,
@@ -56,6 +78,21 @@ public class Product {
     public int getQuantity() { return quantity; }
     public void setQuantity(int quantity) { this.quantity = quantity; }
 
-    public double getPrice() { return price; }
-    public void setPrice(double price) { this.price = price; }
+    public Money getPrice() { return price; }
+    public void setPrice(Money price) { this.price = price == null ? Money.ZERO : price; }
+
+    public Money getCost() { return cost; }
+    public void setCost(Money cost) { this.cost = cost == null ? Money.ZERO : cost; }
+
+    public Integer getLowThreshold() { return lowThreshold; }
+    public void setLowThreshold(Integer lowThreshold) { this.lowThreshold = lowThreshold; }
+
+    public Integer getMaxCapacity() { return maxCapacity; }
+    public void setMaxCapacity(Integer maxCapacity) { this.maxCapacity = maxCapacity; }
+
+    public Long getSupplierId() { return supplierId; }
+    public void setSupplierId(Long supplierId) { this.supplierId = supplierId; }
+
+    public long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(long changeSeq) { this.changeSeq = changeSeq; }
 }
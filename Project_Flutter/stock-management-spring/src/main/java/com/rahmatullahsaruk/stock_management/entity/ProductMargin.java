@@ -0,0 +1,36 @@
+package com.rahmatullahsaruk.stock_management.entity;
+
+import jakarta.persistence.*;
+
+// Running sales and cost-of-goods totals per product; kept in step with invoices by MarginService
+@Entity
+@Table(name = "product_margin")
+public class ProductMargin {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "units_sold", nullable = false)
+    private long unitsSold;
+
+    @Column(name = "revenue_cents", nullable = false)
+    private long revenueCents;
+
+    @Column(name = "cost_cents", nullable = false)
+    private long costCents;
+
+    public ProductMargin() {}
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public long getUnitsSold() { return unitsSold; }
+    public void setUnitsSold(long unitsSold) { this.unitsSold = unitsSold; }
+
+    public long getRevenueCents() { return revenueCents; }
+    public void setRevenueCents(long revenueCents) { this.revenueCents = revenueCents; }
+
+    public long getCostCents() { return costCents; }
+    public void setCostCents(long costCents) { this.costCents = costCents; }
+}
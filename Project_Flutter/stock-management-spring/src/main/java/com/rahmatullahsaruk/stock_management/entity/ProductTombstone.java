@@ -0,0 +1,31 @@
+package com.rahmatullahsaruk.stock_management.entity;
+
+import jakarta.persistence.*;
+
+// Left behind when a product is deleted so delta-syncing clients learn about the removal
+@Entity
+@Table(name = "product_tombstone", indexes = {
+        @Index(name = "idx_product_tombstone_change_seq", columnList = "change_seq")
+})
+public class ProductTombstone {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    public ProductTombstone() {}
+
+    public ProductTombstone(Long productId, long changeSeq) {
+        this.productId = productId;
+        this.changeSeq = changeSeq;
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(long changeSeq) { this.changeSeq = changeSeq; }
+}
@@ -15,6 +15,10 @@ import jakarta.persistence.*;
         private String address;
         private String companyName;
 
+        // Days from order to delivery; null means the configured default
+        @Column(name = "lead_time_days")
+        private Integer leadTimeDays;
+
         public Supplier() {
         }
 
@@ -79,5 +83,13 @@ import jakarta.persistence.*;
         public void setCompanyName(String companyName) {
             this.companyName = companyName;
         }
+
+        public Integer getLeadTimeDays() {
+            return leadTimeDays;
+        }
+
+        public void setLeadTimeDays(Integer leadTimeDays) {
+            this.leadTimeDays = leadTimeDays;
+        }
     }
 
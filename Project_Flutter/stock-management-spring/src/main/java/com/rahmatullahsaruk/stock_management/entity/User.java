@@ -35,6 +35,11 @@ import java.util.List;
         private boolean active;
         private boolean isLock;
 
+        // Tokens carry the generation they were issued under; bumping it revokes them all
+        @JsonIgnore
+        @Column(name = "token_generation", nullable = false)
+        private int tokenGeneration;
+
 
         public User() {
         }
@@ -126,6 +131,14 @@ import java.util.List;
             this.active = active;
         }
 
+        public int getTokenGeneration() {
+            return tokenGeneration;
+        }
+
+        public void setTokenGeneration(int tokenGeneration) {
+            this.tokenGeneration = tokenGeneration;
+        }
+
         public boolean isLock() {
             return isLock;
         }
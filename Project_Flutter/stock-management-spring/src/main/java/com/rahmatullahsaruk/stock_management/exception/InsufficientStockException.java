@@ -0,0 +1,30 @@
+package com.rahmatullahsaruk.stock_management.exception;
+
+import com.rahmatullahsaruk.stock_management.dto.StockShortageDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Thrown when one or more invoice lines ask for more than is on the shelf.
+// Carries every short line so the cashier can fix the whole cart in one go.
+public class InsufficientStockException extends ResponseStatusException {
+
+    private final List<StockShortageDTO> shortages;
+
+    public InsufficientStockException(List<StockShortageDTO> shortages) {
+        super(HttpStatus.CONFLICT, describe(shortages));
+        this.shortages = List.copyOf(shortages);
+    }
+
+    public List<StockShortageDTO> getShortages() {
+        return shortages;
+    }
+
+    private static String describe(List<StockShortageDTO> shortages) {
+        return "Insufficient stock for product(s): " + shortages.stream()
+                .map(s -> s.getProductName() + " (requested " + s.getRequested() + ", available " + s.getAvailable() + ")")
+                .collect(Collectors.joining(", "));
+    }
+}
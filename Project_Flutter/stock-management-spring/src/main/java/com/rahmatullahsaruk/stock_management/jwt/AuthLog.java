@@ -0,0 +1,47 @@
+package com.rahmatullahsaruk.stock_management.jwt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Auth diagnostics for the per-request path. Everything is DEBUG (off by default), so the
+ * normal cost is one level check. When enabled, only one request in {@link #SAMPLE_EVERY}
+ * is described, and tokens and emails are never written in the clear: a token appears as
+ * a short fingerprint, an email as its first letter and domain.
+ */
+final class AuthLog {
+
+    static final Logger log = LoggerFactory.getLogger("com.rahmatullahsaruk.stock_management.jwt.auth");
+
+    static final int SAMPLE_EVERY = 100;
+
+    private AuthLog() {}
+
+    // True for roughly one call in SAMPLE_EVERY, and only when DEBUG is on
+    static boolean sampled() {
+        return log.isDebugEnabled() && ThreadLocalRandom.current().nextInt(SAMPLE_EVERY) == 0;
+    }
+
+    // First 8 hex chars of SHA-256: enough to correlate log lines, useless as a credential
+    static String fingerprint(String token) {
+        if (token == null) return "-";
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            return "?";
+        }
+    }
+
+    static String maskEmail(String email) {
+        if (email == null || email.isEmpty()) return "-";
+        int at = email.indexOf('@');
+        return at <= 0 ? email.charAt(0) + "***" : email.charAt(0) + "***" + email.substring(at);
+    }
+}
@@ -1,16 +1,27 @@
 package com.rahmatullahsaruk.stock_management.jwt;
+import com.rahmatullahsaruk.stock_management.service.TokenRevocationService;
 import com.rahmatullahsaruk.stock_management.service.UserService;
+import com.rahmatullahsaruk.stock_management.service.UserStatusService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
     public class JwtAuthFilter extends OncePerRequestFilter {
 
@@ -21,10 +32,43 @@ import java.io.IOException;
         // Injecting UserService to load user details from the database
         private final UserService userService;
 
+        // Answers "is this account still active" from memory (stateless mode only)
+        private final UserStatusService userStatusService;
+
+        // Answers "was this token revoked by a later login / logout" from memory
+        private final TokenRevocationService tokenRevocationService;
+
+        // true: principal built from the verified token claims, no user lookup per request
+        private final boolean stateless;
+
+        // auth.jwt: time spent checking a bearer token; auth.jwt.rejected{reason}: tokens refused
+        private final Timer authTimer;
+        private final Map<String, Counter> rejections;
+
         // Constructor-based Dependency Injection for JwtService and UserService
-        public JwtAuthFilter(JwtService jwtService, UserService userService) {
+        public JwtAuthFilter(JwtService jwtService, UserService userService,
+                             UserStatusService userStatusService, TokenRevocationService tokenRevocationService,
+                             boolean stateless, MeterRegistry meterRegistry) {
             this.jwtService = jwtService;
             this.userService = userService;
+            this.userStatusService = userStatusService;
+            this.tokenRevocationService = tokenRevocationService;
+            this.stateless = stateless;
+            this.authTimer = Timer.builder("auth.jwt")
+                    .description("Bearer token checks")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.rejections = Map.of(
+                    "unparseable", rejectionCounter(meterRegistry, "unparseable"),
+                    "invalid", rejectionCounter(meterRegistry, "invalid"),
+                    "inactive", rejectionCounter(meterRegistry, "inactive"));
+        }
+
+        private static Counter rejectionCounter(MeterRegistry registry, String reason) {
+            return Counter.builder("auth.jwt.rejected")
+                    .description("Bearer tokens refused: unparseable, invalid (expired, wrong subject, revoked) or inactive account")
+                    .tag("reason", reason)
+                    .register(registry);
         }
 
         @Override
@@ -34,30 +78,73 @@ import java.io.IOException;
                 FilterChain filterChain
         ) throws ServletException, IOException {
 
-            System.out.println("JwtAuthFilter: Incoming request to " + request.getRequestURI());
             String authHeader = request.getHeader("Authorization");
-            System.out.println("Authorization header: " + authHeader);
 
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                System.out.println("No JWT token found, skipping filter.");
                 filterChain.doFilter(request, response);
                 return;
             }
 
             String token = authHeader.substring(7);
-            String username = jwtService.extractUserName(token);
-            System.out.println("Extracted Username from Token: " + username);
+            long start = System.nanoTime();
+            String rejection = "unparseable"; // kept if the token cannot even be parsed
+            try {
+                rejection = authenticate(request, token);
+            } finally {
+                authTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (rejection != null) rejections.get(rejection).increment();
+            }
 
-            // Proceed only if username is extracted and user is not already authenticated
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Continue with the remaining filter chain (other filters, controllers, etc.)
+            filterChain.doFilter(request, response);
 
-                // Loading user details (from DB) using UserService based on extracted username
-                UserDetails userDetails = userService.loadUserByUsername(username);
+        }
+
+        // Sets the security context from the token; returns why it was rejected, or null
+        private String authenticate(HttpServletRequest request, String token) {
+            // Parsed once; every check below reads these claims
+            Claims claims = jwtService.extractAllClaims(token);
+            String username = claims.getSubject();
+            if (username == null) return "invalid";
+
+            // Proceed only if user is not already authenticated
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+
+                // Stateless: authorities come from the token's role claim. Otherwise
+                // loading user details (from DB) using UserService based on extracted username
+                UserDetails userDetails = stateless
+                        ? principalFromClaims(claims, username)
+                        : userService.loadUserByUsername(username);
+                if (userDetails == null) {
+                    // Checked first so the mask and the hash are only computed when logged
+                    if (AuthLog.log.isDebugEnabled()) {
+                        AuthLog.log.atDebug()
+                                .addKeyValue("user", AuthLog.maskEmail(username))
+                                .addKeyValue("token", AuthLog.fingerprint(token))
+                                .log("JWT rejected: account inactive or deleted");
+                    }
+                    return "inactive";
+                }
 
-                boolean valid = jwtService.isValid(token, userDetails);
-                System.out.println("Token validation result: " + valid);
+                boolean valid = jwtService.isValid(claims, userDetails)
+                        && tokenRevocationService.isCurrent(username, jwtService.extractTokenGeneration(claims));
+                if (!valid) {
+                    if (AuthLog.log.isDebugEnabled()) {
+                        AuthLog.log.atDebug()
+                                .addKeyValue("user", AuthLog.maskEmail(username))
+                                .addKeyValue("token", AuthLog.fingerprint(token))
+                                .log("JWT rejected: expired, wrong subject or revoked");
+                    }
+                } else if (AuthLog.sampled()) {
+                    AuthLog.log.atDebug()
+                            .addKeyValue("path", request.getRequestURI())
+                            .addKeyValue("user", AuthLog.maskEmail(username))
+                            .addKeyValue("authorities", userDetails.getAuthorities())
+                            .addKeyValue("token", AuthLog.fingerprint(token))
+                            .log("JWT accepted (sampled)");
+                }
                 // Validating the token against the loaded user details
-                if (jwtService.isValid(token, userDetails)) {
+                if (valid) {
 
                     // If token is valid, create an Authentication token (Spring Security standard)
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -74,20 +161,22 @@ import java.io.IOException;
                     // Setting the authentication object in Spring Security's SecurityContext
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
+                return valid ? null : "invalid";
             }
+            return null;
+        }
 
-            // Continue with the remaining filter chain (other filters, controllers, etc.)
-            filterChain.doFilter(request, response);
-
+        // Principal from the verified claims; null when the account was deactivated or deleted
+        private UserDetails principalFromClaims(Claims claims, String username) {
+            if (!userStatusService.isAllowed(username)) return null;
+            String role = jwtService.extractUserRole(claims);
+            return new User(username, "", List.of(new SimpleGrantedAuthority("ROLE_" + role)));
         }
 
         @Override
         protected boolean shouldNotFilter(HttpServletRequest request) {
             String path = request.getRequestURI();
-            System.out.println("Incoming Request Path: " + path);  // Add this log
-            boolean skip = path.equals("/api/user/login") || path.startsWith("/images/") || path.startsWith("/api/user/active/") || path.startsWith("/api/auth/login") || path.startsWith("/api/super_admin/reg");
-            System.out.println("Should Skip Filter: " + skip);  // Add this log
-            return skip;
+            return path.equals("/api/user/login") || path.startsWith("/images/") || path.startsWith("/api/user/active/") || path.startsWith("/api/auth/login") || path.startsWith("/api/super_admin/reg");
         }
     }
 
@@ -1,43 +1,84 @@
 package com.rahmatullahsaruk.stock_management.jwt;
 import com.rahmatullahsaruk.stock_management.entity.User;
-import com.rahmatullahsaruk.stock_management.repository.TokenRepo;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
     @Service
     public class JwtService {
 
-        @Autowired
-        private TokenRepo tokenRepo;
-
         private final String SECURITY_KEY = "6SeHdW3EuWkwbT0PxoJJRt9YOH1uvppoz4C5uhmv0O3zF30YaD";
 
-        // get all part from token
-        private Claims extractAllClaims(String token) {
+        // Max verified tokens kept, roughly; see evict()
+        static final int CLAIMS_CACHE_SIZE = 10_000;
 
-            return Jwts
-                    .parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+        // Decoded once; the key and parser are immutable and thread-safe
+        private final SecretKey signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECURITY_KEY));
+        private final JwtParser parser = Jwts.parser().verifyWith(signingKey).build();
+
+        // Verified claims by SHA-256 of the token, so raw tokens are never held in memory.
+        // Lock-free reads: every authenticated request goes through here
+        private final Map<String, Claims> claimsCache = new ConcurrentHashMap<>(256);
+
+        /**
+         * Verified claims of a token; the signature is checked only the first time a token
+         * is seen. Callers should parse once per request and read every claim from the result.
+         */
+        public Claims extractAllClaims(String token) {
+
+            String key = hash(token);
+            Claims cached = claimsCache.get(key);
+            if (cached != null) {
+                if (!isExpired(cached)) return cached;
+                claimsCache.remove(key, cached);
+            }
+
+            // Throws on a bad signature or an expired token, so only good tokens are cached
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            claimsCache.put(key, claims);
+            if (claimsCache.size() > CLAIMS_CACHE_SIZE) evict();
+            return claims;
 
         }
 
-        private SecretKey getSigningKey() {
+        // Over the bound: drop expired tokens, then arbitrary ones down to 90%, so this runs rarely
+        private void evict() {
+            claimsCache.values().removeIf(JwtService::isExpired);
+            int excess = claimsCache.size() - CLAIMS_CACHE_SIZE * 9 / 10;
+            Iterator<String> keys = claimsCache.keySet().iterator();
+            while (excess-- > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
 
-            byte[] keyBytes = Decoders.BASE64.decode(SECURITY_KEY);
-            return Keys.hmacShaKeyFor(keyBytes);
+        private static String hash(String token) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+                return Base64.getEncoder().encodeToString(digest);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
 
+        private static boolean isExpired(Claims claims) {
+            Date expiration = claims.getExpiration();
+            return expiration != null && expiration.before(new Date());
         }
 
         public String generateToken(User user) {
@@ -45,9 +86,10 @@ import java.util.function.Function;
                     .builder()
                     .setSubject(user.getEmail()) // Set Email as Subject
                     .claim("role", user.getRole()) // Add user Role to Payload
+                    .claim("gen", user.getTokenGeneration()) // Revocation generation, see TokenRevocationService
                     .setIssuedAt(new Date(System.currentTimeMillis())) // Set Token issue ime
                     .setExpiration(new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000)) // Set Token Expire Time
-                    .signWith(getSigningKey()) // Sign the Token with Secreat key
+                    .signWith(signingKey) // Sign the Token with Secreat key
                     .compact();
 
         }
@@ -67,33 +109,25 @@ import java.util.function.Function;
         }
 
 
-        private Date extractExpiration(String token) {
-
-            return extractClaim(token, Claims::getExpiration);
+        public boolean isValid(Claims claims, UserDetails user) {
 
+            String userName = claims.getSubject();
+            return userName != null && userName.equals(user.getUsername()) && !isExpired(claims);
         }
 
-        private boolean isTokenExpired(String token) {
-
-            return extractExpiration(token).before(new Date());
-
-        }
-
-
-        public boolean isValid(String token, UserDetails user) {
 
-            String userName = extractUserName(token);
-            boolean expired = isTokenExpired(token);
+        // Token generation; tokens issued before revocation existed count as 0
+        public int extractTokenGeneration(Claims claims) {
 
-            System.out.println("Bypassing DB check. Token expired? " + expired);
-            return (userName.equals(user.getUsername()) && !expired);
+            Integer gen = claims.get("gen", Integer.class);
+            return gen == null ? 0 : gen;
         }
 
 
         // get User Role From Token
-        public String extractUserRole(String token) {
+        public String extractUserRole(Claims claims) {
 
-            return extractClaim(token, claims -> claims.get("role", String.class));
+            return claims.get("role", String.class);
         }
     }
 
@@ -19,6 +19,10 @@ public class ProductMapper {
         dto.setDetails(product.getDetails());
         dto.setQuantity(product.getQuantity());
         dto.setPrice(product.getPrice());
+        dto.setCost(product.getCost());
+        dto.setLowThreshold(product.getLowThreshold());
+        dto.setMaxCapacity(product.getMaxCapacity());
+        dto.setSupplierId(product.getSupplierId());
 
         return dto;
     }
@@ -37,6 +41,10 @@ public class ProductMapper {
         product.setDetails(dto.getDetails());
         product.setQuantity(dto.getQuantity());
         product.setPrice(dto.getPrice());
+        product.setCost(dto.getCost());
+        product.setLowThreshold(dto.getLowThreshold());
+        product.setMaxCapacity(dto.getMaxCapacity());
+        product.setSupplierId(dto.getSupplierId());
 
         return product;
     }
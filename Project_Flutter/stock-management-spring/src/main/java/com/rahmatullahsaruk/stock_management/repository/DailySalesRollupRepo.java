@@ -0,0 +1,72 @@
+package com.rahmatullahsaruk.stock_management.repository;
+
+import com.rahmatullahsaruk.stock_management.entity.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepo extends JpaRepository<DailySalesRollup, LocalDate> {
+
+    // Adds a delta to one day, creating the row on first sale. Atomic, so
+    // concurrent checkouts on the same day never lose an update.
+    @Modifying
+    @Query(value = """
+           INSERT INTO daily_sales_rollup (sales_date, revenue_cents, item_count, invoice_count)
+           VALUES (:day, :revenueCents, :items, :invoices)
+           ON DUPLICATE KEY UPDATE
+               revenue_cents = revenue_cents + VALUES(revenue_cents),
+               item_count = item_count + VALUES(item_count),
+               invoice_count = invoice_count + VALUES(invoice_count)
+           """, nativeQuery = true)
+    int addDelta(@Param("day") LocalDate day,
+                 @Param("revenueCents") long revenueCents,
+                 @Param("items") long items,
+                 @Param("invoices") long invoices);
+
+    // Ranges are half-open, [from, to), on the primary key
+    @Query("""
+           SELECT COALESCE(SUM(r.revenueCents), 0)
+           FROM DailySalesRollup r
+           WHERE r.salesDate >= :from AND r.salesDate < :to
+           """)
+    long sumRevenueCents(@Param("from") LocalDate from,
+                         @Param("to") LocalDate to);
+
+    // (day, cents) in day order; the rollup already holds one row per day
+    @Query("""
+           SELECT r.salesDate, r.revenueCents
+           FROM DailySalesRollup r
+           WHERE r.salesDate >= :from AND r.salesDate < :to
+           ORDER BY r.salesDate
+           """)
+    List<Object[]> sumCentsByDay(@Param("from") LocalDate from,
+                                 @Param("to") LocalDate to);
+
+    // ---- Rebuild from invoices ----
+
+    @Modifying
+    @Query("DELETE FROM DailySalesRollup r WHERE r.salesDate >= :from AND r.salesDate < :to")
+    int deleteBetween(@Param("from") LocalDate from,
+                      @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = """
+           INSERT INTO daily_sales_rollup (sales_date, revenue_cents, item_count, invoice_count)
+           SELECT CAST(i.date AS DATE), SUM(i.total_cents), SUM(COALESCE(x.qty, 0)), COUNT(*)
+           FROM invoices i
+           LEFT JOIN (SELECT invoice_id, SUM(quantity) AS qty
+                      FROM invoice_item
+                      GROUP BY invoice_id) x ON x.invoice_id = i.id
+           WHERE i.date >= :start AND i.date < :end
+           GROUP BY CAST(i.date AS DATE)
+           """, nativeQuery = true)
+    int insertAggregatedFromInvoices(@Param("start") LocalDateTime start,
+                                     @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,15 @@
+package com.rahmatullahsaruk.stock_management.repository;
+
+import com.rahmatullahsaruk.stock_management.entity.DemandForecast;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DemandForecastRepo extends JpaRepository<DemandForecast, Long> {
+
+    // Keyset page in product order, so a full pass never holds every model at once
+    List<DemandForecast> findByProductIdGreaterThanOrderByProductId(Long afterId, Limit limit);
+}
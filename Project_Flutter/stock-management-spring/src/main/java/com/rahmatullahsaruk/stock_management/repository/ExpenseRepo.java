@@ -6,29 +6,29 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
 public interface ExpenseRepo extends JpaRepository<Expense, Long> {
 
-    // Monthly sums within a datetime range
+    // Ranges are half-open, [from, to), so idx_expense_date_amount answers them alone.
+    // (day, cents) in day order
     @Query("""
-           SELECT MONTH(e.date) AS m, COALESCE(SUM(e.amount), 0)
+           SELECT e.date, SUM(e.amount)
            FROM Expense e
-           WHERE e.date BETWEEN :start AND :end
-           GROUP BY MONTH(e.date)
-           ORDER BY MONTH(e.date)
+           WHERE e.date >= :from AND e.date < :to
+           GROUP BY e.date
+           ORDER BY e.date
            """)
-    List<Object[]> sumByMonthBetween(@Param("start") LocalDateTime start,
-                                     @Param("end") LocalDateTime end);
+    List<Object[]> sumCentsByDay(@Param("from") LocalDate from,
+                                 @Param("to") LocalDate to);
 
-    // Total expenses within a datetime range
     @Query("""
            SELECT COALESCE(SUM(e.amount), 0)
            FROM Expense e
-           WHERE e.date BETWEEN :start AND :end
+           WHERE e.date >= :from AND e.date < :to
            """)
-    Double getExpensesBetween(@Param("start") LocalDateTime start,
-                              @Param("end") LocalDateTime end);
+    long sumCents(@Param("from") LocalDate from,
+                  @Param("to") LocalDate to);
 }
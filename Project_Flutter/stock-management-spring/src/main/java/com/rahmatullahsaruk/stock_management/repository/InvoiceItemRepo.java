@@ -1,9 +1,46 @@
 package com.rahmatullahsaruk.stock_management.repository;
 
 import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface InvoiceItemRepo extends JpaRepository<InvoiceItem, Long> {
+
+    // All items with their product joined in, instead of one product SELECT per item
+    @EntityGraph(attributePaths = "product")
+    @Query("SELECT it FROM InvoiceItem it")
+    List<InvoiceItem> findAllWithProduct();
+
+    @EntityGraph(attributePaths = "product")
+    Optional<InvoiceItem> findWithProductById(Long id);
+
+    // (product id, day, units) for invoices dated on or after :from, in day order;
+    // seeds the in-memory sales counters once at startup
+    @Query("""
+           SELECT it.product.id, CAST(i.date AS LocalDate), SUM(it.quantity)
+           FROM InvoiceItem it JOIN it.invoice i
+           WHERE i.date >= :from AND it.product IS NOT NULL
+           GROUP BY it.product.id, CAST(i.date AS LocalDate)
+           ORDER BY CAST(i.date AS LocalDate)
+           """)
+    List<Object[]> sumUnitsByProductAndDaySince(@Param("from") LocalDateTime from);
+
+    // (product id, day, units) for invoices with ids in (:afterId, :upToId], in day order;
+    // one bounded chunk of the forecasting job's incremental read
+    @Query("""
+           SELECT it.product.id, CAST(i.date AS LocalDate), SUM(it.quantity)
+           FROM InvoiceItem it JOIN it.invoice i
+           WHERE i.id > :afterId AND i.id <= :upToId AND it.product IS NOT NULL
+           GROUP BY it.product.id, CAST(i.date AS LocalDate)
+           ORDER BY CAST(i.date AS LocalDate)
+           """)
+    List<Object[]> sumUnitsByProductAndDayForInvoices(@Param("afterId") long afterId, @Param("upToId") long upToId);
 }
@@ -1,13 +1,22 @@
 package com.rahmatullahsaruk.stock_management.repository;
 
+import com.rahmatullahsaruk.stock_management.dto.InvoiceExportRow;
 import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InvoiceRepo extends JpaRepository<Invoice, Long> {
@@ -15,23 +24,74 @@ public interface InvoiceRepo extends JpaRepository<Invoice, Long> {
     // You can keep this if used elsewhere
     List<Invoice> findByDateBetween(LocalDateTime start, LocalDateTime end);
 
-    // Monthly sums within a datetime range
+    // (day, cents) in day order over [from, to). Reads invoices directly; reports
+    // use daily_sales_rollup, this is the source it is checked against.
     @Query("""
-           SELECT MONTH(i.date) AS m, COALESCE(SUM(i.total), 0)
+           SELECT CAST(i.date AS LocalDate), SUM(i.total)
            FROM Invoice i
-           WHERE i.date BETWEEN :start AND :end
-           GROUP BY MONTH(i.date)
-           ORDER BY MONTH(i.date)
+           WHERE i.date >= :from AND i.date < :to
+           GROUP BY CAST(i.date AS LocalDate)
+           ORDER BY CAST(i.date AS LocalDate)
            """)
-    List<Object[]> sumByMonthBetween(@Param("start") LocalDateTime start,
-                                     @Param("end") LocalDateTime end);
+    List<Object[]> sumCentsByDay(@Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
 
-    // ✅ Total sales (revenue) within a datetime range — the method you were calling
+    // Keyset page of invoice ids, newest first, strictly after the (date, id) cursor.
+    // Callers pass sentinel bounds instead of nulls so the predicate stays sargable.
+    @Query("""
+           SELECT i.id
+           FROM Invoice i
+           WHERE i.date >= :from AND i.date < :to
+             AND (i.date < :afterDate OR (i.date = :afterDate AND i.id < :afterId))
+             AND (:customer = ''
+                  OR LOWER(i.name) LIKE CONCAT('%', :customer, '%')
+                  OR LOWER(i.email) LIKE CONCAT('%', :customer, '%')
+                  OR i.phone LIKE CONCAT('%', :customer, '%'))
+           ORDER BY i.date DESC, i.id DESC
+           """)
+    List<Long> findPageIds(@Param("from") LocalDateTime from,
+                           @Param("to") LocalDateTime to,
+                           @Param("afterDate") LocalDateTime afterDate,
+                           @Param("afterId") Long afterId,
+                           @Param("customer") String customer,
+                           Limit limit);
+
+    // Loads a whole page with its items and products in one round trip
+    @EntityGraph("Invoice.itemsWithProduct")
+    List<Invoice> findAllWithItemsByIdIn(Collection<Long> ids);
+
+    // Single invoice with items and products in one round trip
+    @EntityGraph("Invoice.itemsWithProduct")
+    Optional<Invoice> findWithItemsById(Long id);
+
+    @Query("SELECT MAX(i.id) FROM Invoice i")
+    Long findMaxId();
+
+    @Query("SELECT MAX(i.date) FROM Invoice i")
+    LocalDateTime findMaxDate();
+
+    // Export feed: one row per invoice line, streamed from a server-side cursor
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+           SELECT new com.rahmatullahsaruk.stock_management.dto.InvoiceExportRow(
+                  i.id, i.invoiceNumber, i.date, i.name, i.email, i.phone,
+                  i.subtotal, i.discount, i.total, i.paid,
+                  p.id, p.name, it.quantity, it.priceAtSale)
+           FROM Invoice i
+           LEFT JOIN i.items it
+           LEFT JOIN it.product p
+           WHERE i.date >= :from AND i.date < :to
+           ORDER BY i.date, i.id, it.id
+           """)
+    Stream<InvoiceExportRow> streamExportRows(@Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
+    // ✅ Total sales (revenue) in cents over [from, to)
     @Query("""
            SELECT COALESCE(SUM(i.total), 0)
            FROM Invoice i
-           WHERE i.date BETWEEN :start AND :end
+           WHERE i.date >= :from AND i.date < :to
            """)
-    Double getSalesBetween(@Param("start") LocalDateTime start,
-                           @Param("end") LocalDateTime end);
+    long sumCents(@Param("from") LocalDateTime from,
+                  @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,20 @@
+package com.rahmatullahsaruk.stock_management.repository;
+
+import com.rahmatullahsaruk.stock_management.entity.NumberSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NumberSequenceRepo extends JpaRepository<NumberSequence, String> {
+
+    // Row-locks the sequence until commit, so concurrent instances get disjoint blocks
+    @Modifying
+    @Query("UPDATE NumberSequence s SET s.nextValue = s.nextValue + :size WHERE s.name = :name")
+    int advance(@Param("name") String name, @Param("size") long size);
+
+    @Query("SELECT s.nextValue FROM NumberSequence s WHERE s.name = :name")
+    long findNextValue(@Param("name") String name);
+}
@@ -0,0 +1,90 @@
+package com.rahmatullahsaruk.stock_management.repository;
+
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.entity.ProductMargin;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductMarginRepo extends JpaRepository<ProductMargin, Long> {
+
+    // Both writes below run once per product after the invoice and its lines are in the
+    // session. Nothing pending there touches product_margin, so they skip the auto-flush,
+    // which would otherwise dirty-check every line again for each product (quadratic).
+
+    // A product's first sale: creates the row, or adds to it if a concurrent first
+    // sale got there first. Only used when increment() found no row; the insert
+    // attempt makes this far slower than a plain UPDATE under contention.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(value = """
+           INSERT INTO product_margin (product_id, units_sold, revenue_cents, cost_cents)
+           VALUES (:productId, :units, :revenueCents, :costCents)
+           ON DUPLICATE KEY UPDATE
+               units_sold = units_sold + VALUES(units_sold),
+               revenue_cents = revenue_cents + VALUES(revenue_cents),
+               cost_cents = cost_cents + VALUES(cost_cents)
+           """, nativeQuery = true)
+    int addDelta(@Param("productId") long productId,
+                 @Param("units") long units,
+                 @Param("revenueCents") long revenueCents,
+                 @Param("costCents") long costCents);
+
+    // Common case once a product has sold: a plain increment of the existing row
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("""
+           UPDATE ProductMargin m
+           SET m.unitsSold = m.unitsSold + :units,
+               m.revenueCents = m.revenueCents + :revenueCents,
+               m.costCents = m.costCents + :costCents
+           WHERE m.productId = :productId
+           """)
+    int increment(@Param("productId") long productId,
+                  @Param("units") long units,
+                  @Param("revenueCents") long revenueCents,
+                  @Param("costCents") long costCents);
+
+    // (category, units, revenue cents, cost cents) from one row per product sold
+    @Query("""
+           SELECT p.category, SUM(m.unitsSold), SUM(m.revenueCents), SUM(m.costCents)
+           FROM ProductMargin m JOIN Product p ON p.id = m.productId
+           GROUP BY p.category
+           ORDER BY p.category
+           """)
+    List<Object[]> sumByCategory();
+
+    // (product id, name, category, units, revenue cents, cost cents), highest gross margin first
+    @Query("""
+           SELECT m.productId, p.name, p.category, m.unitsSold, m.revenueCents, m.costCents
+           FROM ProductMargin m JOIN Product p ON p.id = m.productId
+           WHERE :category IS NULL OR p.category = :category
+           ORDER BY m.revenueCents - m.costCents DESC, m.productId
+           """)
+    List<Object[]> findTopByMargin(@Param("category") Product.Category category, Limit limit);
+
+    // ---- Rebuild from invoice lines ----
+
+    @Modifying
+    @Query("DELETE FROM ProductMargin")
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = """
+           INSERT INTO product_margin (product_id, units_sold, revenue_cents, cost_cents)
+           SELECT product_id, SUM(quantity), SUM(quantity * price_at_sale_cents), SUM(quantity * cost_at_sale_cents)
+           FROM invoice_item
+           WHERE product_id IS NOT NULL
+           GROUP BY product_id
+           """, nativeQuery = true)
+    int insertAggregatedFromInvoiceItems();
+}
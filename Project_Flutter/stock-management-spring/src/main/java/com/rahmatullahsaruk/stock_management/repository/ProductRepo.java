@@ -2,7 +2,11 @@ package com.rahmatullahsaruk.stock_management.repository;
 
 import com.rahmatullahsaruk.stock_management.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +15,37 @@ public interface ProductRepo extends JpaRepository<Product, Long> {
         Optional<Product> findByName(String name);
         List<Product> findByCategory(Product.Category category);
 
+        // Atomic conditional decrement: no SELECT, no dirty check, no lost update.
+        // Returns 1 when the stock was taken, 0 when the product is missing or short.
+        @Modifying
+        @Query("""
+               UPDATE Product p SET p.quantity = p.quantity - :qty
+               WHERE p.id = :id AND p.quantity >= :qty
+               """)
+        int decrementStock(@Param("id") Long id, @Param("qty") int qty);
+
+        // Stamps the change sequence of a committing transaction; see ProductChangeService
+        @Modifying
+        @Query("UPDATE Product p SET p.changeSeq = :seq WHERE p.id IN :ids")
+        int stampChangeSeq(@Param("ids") Collection<Long> ids, @Param("seq") long seq);
+
+        // (id, cost) per product: the cost snapshot a checkout puts on its lines, in one query
+        @Query("SELECT p.id, p.cost FROM Product p WHERE p.id IN :ids")
+        List<Object[]> findCostsByIdIn(@Param("ids") Collection<Long> ids);
+
+        // ---- Delta sync ----
+
+        @Query("""
+               SELECT p FROM Product p
+               WHERE p.changeSeq > :since AND p.changeSeq <= :upTo
+               ORDER BY p.changeSeq
+               """)
+        List<Product> findChangedBetween(@Param("since") long since,
+                                         @Param("upTo") long upTo);
+
+        @Query("SELECT COALESCE(MAX(p.changeSeq), 0) FROM Product p")
+        long findMaxChangeSeq();
+
 
     }
 
@@ -0,0 +1,24 @@
+package com.rahmatullahsaruk.stock_management.repository;
+
+import com.rahmatullahsaruk.stock_management.entity.ProductTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductTombstoneRepo extends JpaRepository<ProductTombstone, Long> {
+
+    @Query("""
+           SELECT t.productId FROM ProductTombstone t
+           WHERE t.changeSeq > :since AND t.changeSeq <= :upTo
+           ORDER BY t.changeSeq
+           """)
+    List<Long> findDeletedIdsBetween(@Param("since") long since,
+                                     @Param("upTo") long upTo);
+
+    @Query("SELECT COALESCE(MAX(t.changeSeq), 0) FROM ProductTombstone t")
+    long findMaxChangeSeq();
+}
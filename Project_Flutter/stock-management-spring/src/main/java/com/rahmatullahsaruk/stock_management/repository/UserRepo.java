@@ -1,12 +1,30 @@
 package com.rahmatullahsaruk.stock_management.repository;
 import com.rahmatullahsaruk.stock_management.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.Optional;
 
     @Repository
     public interface UserRepo extends JpaRepository<User, Integer>{
 
         Optional<User> findByEmail(String email);
+
+        @Transactional
+        @Modifying
+        @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+        int updatePassword(@Param("id") int id, @Param("password") String password);
+
+        // Incremented in the database, so concurrent revocations on any instance all count
+        @Modifying
+        @Query("UPDATE User u SET u.tokenGeneration = u.tokenGeneration + 1 WHERE u.email = :email")
+        int bumpTokenGeneration(@Param("email") String email);
+
+        @Query("SELECT u.tokenGeneration FROM User u WHERE u.email = :email")
+        Optional<Integer> findTokenGeneration(@Param("email") String email);
     }
 
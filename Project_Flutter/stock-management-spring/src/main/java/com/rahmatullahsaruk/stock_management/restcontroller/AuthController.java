@@ -2,7 +2,6 @@ package com.rahmatullahsaruk.stock_management.restcontroller;
 import com.rahmatullahsaruk.stock_management.dto.AuthDTO;
 import com.rahmatullahsaruk.stock_management.dto.UserDTO;
 import com.rahmatullahsaruk.stock_management.entity.User;
-import com.rahmatullahsaruk.stock_management.repository.TokenRepo;
 import com.rahmatullahsaruk.stock_management.service.AuthService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,9 +17,6 @@ import java.util.List;
         @Autowired
         private AuthService authService;
 
-        @Autowired
-        private TokenRepo tokenRepo;
-
 
         @GetMapping("/all")
         public ResponseEntity<List<UserDTO>> getAllUserDTO() {
@@ -51,10 +47,7 @@ import java.util.List;
 
             String token = authHeader.substring(7);  // Strip "Bearer "
 
-            tokenRepo.findByToken(token).ifPresent(savedToken -> {
-                savedToken.setLogout(true);  // Mark token as logged out
-                tokenRepo.save(savedToken);
-            });
+            authService.logout(token);  // Revokes it in memory and in users.token_generation
 
             return ResponseEntity.ok("Logged out successfully.");
         }
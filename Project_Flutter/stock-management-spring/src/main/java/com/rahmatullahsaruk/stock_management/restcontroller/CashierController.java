@@ -7,6 +7,8 @@ import com.rahmatullahsaruk.stock_management.entity.User;
 import com.rahmatullahsaruk.stock_management.repository.UserRepo;
 import com.rahmatullahsaruk.stock_management.service.AuthService;
 import com.rahmatullahsaruk.stock_management.service.CashierService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,6 +26,8 @@ import java.util.Optional;
     @JsonIgnoreProperties
     public class CashierController {
 
+        private static final Logger log = LoggerFactory.getLogger(CashierController.class);
+
 
         @Autowired
         private UserRepo userRepo;
@@ -70,7 +74,7 @@ import java.util.Optional;
 
             } catch (Exception e) {
                 // Unexpected server error
-                e.printStackTrace(); // Log full stack trace to console or log file
+                log.error("Cashier registration failed", e);
                 response.put("message", "Cashier save failed: " + e.getMessage());
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
             }
@@ -78,8 +82,7 @@ import java.util.Optional;
 
         @GetMapping("/profile")
         public ResponseEntity<?> getProfile(Authentication authentication) {
-            System.out.println("Authenticated User: " + authentication.getName());
-            System.out.println("Authorities: " + authentication.getAuthorities());
+            log.debug("Profile request with {}", authentication.getAuthorities());
             String email = authentication.getName();
             Optional<User> user =userRepo.findByEmail(email);
             Cashier cashier = cashierService.getProfileByUserId(user.get().getId());
@@ -0,0 +1,37 @@
+package com.rahmatullahsaruk.stock_management.restcontroller;
+
+import com.rahmatullahsaruk.stock_management.dto.ReorderReportDTO;
+import com.rahmatullahsaruk.stock_management.service.ForecastService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin // allow Flutter dev host/ports during dev
+public class ForecastController {
+
+    private final ForecastService forecastService;
+
+    public ForecastController(ForecastService forecastService) {
+        this.forecastService = forecastService;
+    }
+
+    // Reorder points and suggested orders per product, and totals per supplier
+    @GetMapping("/reorder")
+    public ReorderReportDTO reorder(@RequestParam(required = false) Long supplierId) {
+        return forecastService.getReorderReport(supplierId);
+    }
+
+    // Runs the nightly forecast update now, over invoices added since the last run
+    @PostMapping("/forecast/run")
+    public ResponseEntity<Map<String, Long>> run() {
+        try {
+            return ResponseEntity.ok(forecastService.run());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package com.rahmatullahsaruk.stock_management.restcontroller;
 
 import com.rahmatullahsaruk.stock_management.dto.InvoiceDTO;
+import com.rahmatullahsaruk.stock_management.dto.InvoicePageDTO;
 import com.rahmatullahsaruk.stock_management.dto.SalesSummaryDTO;
 import com.rahmatullahsaruk.stock_management.entity.Invoice;
-import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.entity.Money;
 import com.rahmatullahsaruk.stock_management.mapper.InvoiceMapper;
-import com.rahmatullahsaruk.stock_management.repository.InvoiceRepo;
+import com.rahmatullahsaruk.stock_management.service.InvoiceExportService;
 import com.rahmatullahsaruk.stock_management.service.InvoiceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
-import java.util.Optional;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 
 @CrossOrigin(origins = "*")
 @RestController
@@ -20,7 +25,7 @@ import java.util.Optional;
 public class InvoiceController {
 
     @Autowired private InvoiceService invoiceService;
-    @Autowired private InvoiceRepo invoiceRepo;
+    @Autowired private InvoiceExportService invoiceExportService;
 
     @PostMapping
     public ResponseEntity<InvoiceDTO> createInvoice(@RequestBody Invoice invoice) {
@@ -30,60 +35,69 @@ public class InvoiceController {
 
     // Removed: /{id}/send-receipt endpoint and all Twilio/Gmail usage.
 
+    // Keyset-paginated: pass back nextCursor to get the following (older) page
     @GetMapping
-    public ResponseEntity<List<InvoiceDTO>> getAllInvoices() {
-        List<Invoice> invoices = invoiceService.getAll();
-        List<InvoiceDTO> dtoList = invoices.stream().map(InvoiceMapper::toDTO).toList();
-        return ResponseEntity.ok(dtoList);
+    public ResponseEntity<InvoicePageDTO> getInvoices(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(invoiceService.getPage(from, to, customer, cursor, size));
+    }
+
+    // Streams invoices for accounting as NDJSON (default) or CSV; gzip is applied by the server
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInvoices(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        InvoiceExportService.Format fmt;
+        try {
+            fmt = InvoiceExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String fileName = "invoices" + (from != null ? "-" + from : "") + (to != null ? "-" + to : "")
+                + (fmt == InvoiceExportService.Format.CSV ? ".csv" : ".ndjson");
+        MediaType type = fmt == InvoiceExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+
+        StreamingResponseBody body = out -> invoiceExportService.export(fmt, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<InvoiceDTO> getInvoiceById(@PathVariable Long id) {
-        Optional<Invoice> invoiceOpt = invoiceService.getById(id);
-        return invoiceOpt
-                .map(invoice -> ResponseEntity.ok(InvoiceMapper.toDTO(invoice)))
+        return invoiceService.getDTOById(id)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<InvoiceDTO> updateInvoice(@PathVariable Long id,
                                                     @RequestBody Invoice updatedData) {
-        Optional<Invoice> opt = invoiceRepo.findById(id);
-        if (opt.isEmpty()) return ResponseEntity.notFound().build();
-
-        Invoice existing = opt.get();
-        existing.setName(updatedData.getName());
-        existing.setEmail(updatedData.getEmail());
-        existing.setPhone(updatedData.getPhone());
-        existing.setDiscount(updatedData.getDiscount());
-        existing.setPaid(updatedData.getPaid());
-        existing.setInvoiceNumber(updatedData.getInvoiceNumber());
-
-        existing.getItems().clear();
-        if (updatedData.getItems() != null) {
-            for (InvoiceItem item : updatedData.getItems()) {
-                item.setInvoice(existing);
-                existing.getItems().add(item);
-            }
-        }
-
-        existing.calculateTotals();
-        Invoice saved = invoiceRepo.save(existing);
-        return ResponseEntity.ok(InvoiceMapper.toDTO(saved));
+        return invoiceService.update(id, updatedData)
+                .map(saved -> ResponseEntity.ok(InvoiceMapper.toDTO(saved)))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteInvoice(@PathVariable Long id) {
-        if (!invoiceRepo.existsById(id)) return ResponseEntity.notFound().build();
-        invoiceRepo.deleteById(id);
+        if (!invoiceService.delete(id)) return ResponseEntity.notFound().build();
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/sellsummary")
     public SalesSummaryDTO getSalesSummary() {
-        Double today  = invoiceService.getTodaySales();
-        Double last7  = invoiceService.getLast7DaysSales();
-        Double last30 = invoiceService.getLast30DaysSales();
+        Money today  = invoiceService.getTodaySales();
+        Money last7  = invoiceService.getLast7DaysSales();
+        Money last30 = invoiceService.getLast30DaysSales();
         return new SalesSummaryDTO(today, last7, last30);
     }
 }
@@ -8,6 +8,8 @@ import com.rahmatullahsaruk.stock_management.entity.User;
 import com.rahmatullahsaruk.stock_management.repository.UserRepo;
 import com.rahmatullahsaruk.stock_management.service.AuthService;
 import com.rahmatullahsaruk.stock_management.service.ManagerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +27,8 @@ import java.util.Optional;
     @JsonIgnoreProperties
     public class ManagerController {
 
+        private static final Logger log = LoggerFactory.getLogger(ManagerController.class);
+
         @Autowired
         private UserRepo userRepo;
 
@@ -66,7 +70,7 @@ import java.util.Optional;
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
 
             } catch (Exception e) {
-                e.printStackTrace();
+                log.error("Manager registration failed", e);
                 response.put("message", "Manager save failed: " + e.getMessage());
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
             }
@@ -74,8 +78,7 @@ import java.util.Optional;
 
         @GetMapping("/profile")
         public ResponseEntity<?> getProfile(Authentication authentication) {
-            System.out.println("Authenticated User: " + authentication.getName());
-            System.out.println("Authorities: " + authentication.getAuthorities());
+            log.debug("Profile request with {}", authentication.getAuthorities());
 
             String email = authentication.getName();
             Optional<User> user = userRepo.findByEmail(email);
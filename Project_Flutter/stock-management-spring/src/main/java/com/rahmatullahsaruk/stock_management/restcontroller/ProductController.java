@@ -1,16 +1,24 @@
 package com.rahmatullahsaruk.stock_management.restcontroller;
 
 
+import com.rahmatullahsaruk.stock_management.dto.ProductChangesDTO;
 import com.rahmatullahsaruk.stock_management.dto.ProductDTO;
+import com.rahmatullahsaruk.stock_management.dto.StockAlertsDTO;
 import com.rahmatullahsaruk.stock_management.entity.Product;
 import com.rahmatullahsaruk.stock_management.mapper.ProductMapper;
+import com.rahmatullahsaruk.stock_management.service.ProductChangeService;
 import com.rahmatullahsaruk.stock_management.service.ProductService;
+import com.rahmatullahsaruk.stock_management.service.StockAlertService;
+import com.rahmatullahsaruk.stock_management.service.StockStreamService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/product")
@@ -18,9 +26,16 @@ import java.util.stream.Collectors;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductChangeService productChangeService;
+    private final StockStreamService stockStreamService;
+    private final StockAlertService stockAlertService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductChangeService productChangeService,
+                             StockStreamService stockStreamService, StockAlertService stockAlertService) {
         this.productService = productService;
+        this.productChangeService = productChangeService;
+        this.stockStreamService = stockStreamService;
+        this.stockAlertService = stockAlertService;
     }
 
     // ✅ Create
@@ -31,12 +46,33 @@ public class ProductController {
         return ResponseEntity.ok(ProductMapper.toDTO(savedProduct));
     }
 
-    // ✅ Read all
+    // ✅ Read all (served from the in-memory catalog; 304 when the client's ETag is current)
     @GetMapping("/all")
-    public List<ProductDTO> getAllProducts() {
-        return productService.getAllProducts().stream()
-                .map(ProductMapper::toDTO)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<ProductDTO>> getAllProducts(WebRequest request) {
+        ProductService.Catalog catalog = productService.getCatalog();
+        String etag = "\"" + catalog.getVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(catalog.getProducts());
+    }
+
+    // ✅ Delta sync: products added/updated and ids deleted since the client's last "version"
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangesDTO> getChanges(@RequestParam(required = false) Long since) {
+        return ResponseEntity.ok(productChangeService.getChangesSince(since));
+    }
+
+    // ✅ Live stock levels (SSE): "ready" with the catalog version, then "stock" batches
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStock() {
+        return stockStreamService.subscribe();
+    }
+
+    // ✅ Products at or below their low threshold / at or above max capacity
+    @GetMapping("/alerts")
+    public ResponseEntity<StockAlertsDTO> getAlerts() {
+        return ResponseEntity.ok(stockAlertService.getAlerts());
     }
 
     // ✅ Read one by ID
@@ -64,6 +100,11 @@ public class ProductController {
         existing.setDetails(dto.getDetails());
         existing.setQuantity(dto.getQuantity());
         existing.setPrice(dto.getPrice());
+        if (dto.getCost() != null) existing.setCost(dto.getCost()); // older clients don't send it
+        // Older clients don't send these either; a missing value keeps the product's own
+        if (dto.getLowThreshold() != null) existing.setLowThreshold(dto.getLowThreshold());
+        if (dto.getMaxCapacity() != null) existing.setMaxCapacity(dto.getMaxCapacity());
+        if (dto.getSupplierId() != null) existing.setSupplierId(dto.getSupplierId());
 
         Product updated = productService.saveProduct(existing);
         return ResponseEntity.ok(ProductMapper.toDTO(updated));
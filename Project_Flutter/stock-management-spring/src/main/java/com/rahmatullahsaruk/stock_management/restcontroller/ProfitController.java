@@ -1,11 +1,23 @@
 package com.rahmatullahsaruk.stock_management.restcontroller;
 
+import com.rahmatullahsaruk.stock_management.dto.MarginReportDTO;
 import com.rahmatullahsaruk.stock_management.dto.MonthlyProfitDTO;
+import com.rahmatullahsaruk.stock_management.dto.ProfitRangeDTO;
+import com.rahmatullahsaruk.stock_management.dto.TopProductsDTO;
 import com.rahmatullahsaruk.stock_management.dto.YearProfitSummaryDTO;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.service.MarginService;
 import com.rahmatullahsaruk.stock_management.service.ProfitService;
+import com.rahmatullahsaruk.stock_management.service.SalesRankingService;
+import com.rahmatullahsaruk.stock_management.service.SalesRollupService;
+import com.rahmatullahsaruk.stock_management.service.TimeBucket;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/analytics")
@@ -13,9 +25,16 @@ import java.util.List;
 public class ProfitController {
 
     private final ProfitService profitService;
+    private final SalesRollupService salesRollupService;
+    private final MarginService marginService;
+    private final SalesRankingService salesRankingService;
 
-    public ProfitController(ProfitService profitService) {
+    public ProfitController(ProfitService profitService, SalesRollupService salesRollupService,
+                            MarginService marginService, SalesRankingService salesRankingService) {
         this.profitService = profitService;
+        this.salesRollupService = salesRollupService;
+        this.marginService = marginService;
+        this.salesRankingService = salesRankingService;
     }
 
     @GetMapping("/profit/monthly")
@@ -27,4 +46,49 @@ public class ProfitController {
     public YearProfitSummaryDTO summary(@RequestParam int year) {
         return profitService.getYearSummary(year);
     }
+
+    // Any [from, to) range by DAY, WEEK, MONTH, QUARTER or YEAR, with year-over-year changes
+    @GetMapping("/profit/range")
+    public ResponseEntity<ProfitRangeDTO> range(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "month") String bucket) {
+        try {
+            return ResponseEntity.ok(profitService.getProfitRange(from, to, TimeBucket.valueOf(bucket.toUpperCase())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Gross margin: totals, per category, and the top products (optionally of one category)
+    @GetMapping("/margin")
+    public MarginReportDTO margin(@RequestParam(required = false) Product.Category category,
+                                  @RequestParam(required = false) Integer limit) {
+        return marginService.getReport(category, limit);
+    }
+
+    // Best sellers and slow movers over the last `window` days, served from memory
+    @GetMapping("/top-products")
+    public ResponseEntity<TopProductsDTO> topProducts(@RequestParam(defaultValue = "30") int window,
+                                                      @RequestParam(required = false) Integer n) {
+        try {
+            return ResponseEntity.ok(salesRankingService.getTopProducts(window, n));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Recomputes product_margin from invoice lines
+    @PostMapping("/margin/rebuild")
+    public Map<String, Integer> rebuildMargin() {
+        return Map.of("products", marginService.rebuild());
+    }
+
+    // Recomputes daily_sales_rollup from invoices (whole history when no range is given)
+    @PostMapping("/rollup/rebuild")
+    public Map<String, Integer> rebuildRollup(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return Map.of("days", salesRollupService.rebuild(from, to));
+    }
 }
@@ -4,7 +4,11 @@ import com.rahmatullahsaruk.stock_management.jwt.JwtAuthFilter;
 
 
 import com.rahmatullahsaruk.stock_management.jwt.JwtService;
+import com.rahmatullahsaruk.stock_management.service.TokenRevocationService;
 import com.rahmatullahsaruk.stock_management.service.UserService;
+import com.rahmatullahsaruk.stock_management.service.UserStatusService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -64,7 +68,9 @@ public class SecurityConfig {
                                 "/api/suppliers/**",
                                 "/images/**",
                                 "/api/expenses/**",
-                                "/api/analytics/**"
+                                "/api/analytics/**",
+                                "/actuator/health",
+                                "/actuator/prometheus"
                         ).permitAll()
 
 //                        .authorizeHttpRequests(req -> req
@@ -82,8 +88,12 @@ public class SecurityConfig {
 
 
     @Bean
-    public JwtAuthFilter jwtAuthFilter(JwtService jwtService, UserService userService) {
-        return new JwtAuthFilter(jwtService, userService);
+    public JwtAuthFilter jwtAuthFilter(JwtService jwtService, UserService userService,
+                                       UserStatusService userStatusService,
+                                       TokenRevocationService tokenRevocationService,
+                                       @Value("${security.jwt.stateless:true}") boolean stateless,
+                                       MeterRegistry meterRegistry) {
+        return new JwtAuthFilter(jwtService, userService, userStatusService, tokenRevocationService, stateless, meterRegistry);
     }
 
     @Bean
@@ -91,9 +101,10 @@ public class SecurityConfig {
         return configuration.getAuthenticationManager();
     }
 
+    // Raising the strength is picked up per user on their next login (rehash-on-login)
     @Bean
-    public PasswordEncoder encoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder encoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -4,14 +4,10 @@ import com.rahmatullahsaruk.stock_management.dto.AuthDTO;
 import com.rahmatullahsaruk.stock_management.dto.UserDTO;
 import com.rahmatullahsaruk.stock_management.entity.*;
 import com.rahmatullahsaruk.stock_management.jwt.JwtService;
-import com.rahmatullahsaruk.stock_management.repository.TokenRepo;
 import com.rahmatullahsaruk.stock_management.repository.UserRepo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -30,11 +26,13 @@ public class AuthService {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private UserRepo userRepo;
-    @Autowired
-    private TokenRepo tokenRepo;
 
     @Autowired
     private JwtService jwtService;
+    @Autowired
+    private UserStatusService userStatusService;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     @Autowired
     private AdminService adminService;
@@ -44,8 +42,7 @@ public class AuthService {
     private CashierService cashierService;
 
     @Autowired
-    @Lazy
-    private AuthenticationManager authenticationManager;
+    private PasswordHashingService passwordHashingService;
 
     @Value("src/main/resources/static/images")
     private String uploadDir;
@@ -59,6 +56,7 @@ public class AuthService {
 
         user.setRole(Role.ADMIN);
         userRepo.save(user);
+        userStatusService.invalidate(user.getEmail());
         // (Email sending removed)
     }
 
@@ -86,6 +84,7 @@ public class AuthService {
 
     public void delete(User user) {
         userRepo.delete(user);
+        userStatusService.invalidate(user.getEmail());
     }
 
     // ---- Admin ----
@@ -128,9 +127,6 @@ public class AuthService {
 
         adminData.setUser(savedUser);
         adminService.save(adminData);
-
-        String jwt = jwtService.generateToken(savedUser);
-        saveUserToken(jwt, savedUser);
         // (Email sending removed)
     }
 
@@ -196,9 +192,6 @@ public class AuthService {
 
         managerdata.setUser(savedUser);
         managerService.save(managerdata);
-
-        String jwt = jwtService.generateToken(savedUser);
-        saveUserToken(jwt, savedUser);
         // (Email sending removed)
     }
 
@@ -243,58 +236,54 @@ public class AuthService {
         cashierData.setUser(savedUser);
         cashierService.save(cashierData);
 
-        String jwt = jwtService.generateToken(savedUser);
-        saveUserToken(jwt, savedUser);
-
         // (Email sending removed)
     }
 
-    private void saveUserToken(String jwt, User user) {
-        Token token = new Token();
-        token.setToken(jwt);
-        token.setLogout(false);
-        token.setUser(user);
-        tokenRepo.save(token);
-    }
-
-    private void removeAllTokenByUser(User user) {
-        List<Token> validTokens = tokenRepo.findAllTokenByUser(user.getId());
-        if (validTokens.isEmpty()) return;
-
-        validTokens.forEach(t -> t.setLogout(true));
-        tokenRepo.saveAll(validTokens);
-    }
-
     // ---- Login ----
+    // One user lookup; BCrypt runs on the bounded hashing pool, not the request thread
     public AuthDTO authenticate(User request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getUsername(),
-                        request.getPassword()
-                )
-        );
+        User user = userRepo.findByEmail(request.getEmail()).orElse(null);
+        String hash = user != null ? user.getPassword() : null;
 
-        User user = userRepo.findByEmail(request.getEmail())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        if (!passwordHashingService.matches(request.getPassword(), hash)) {
+            throw new BadCredentialsException("Bad credentials");
+        }
 
         if (!user.isActive()) {
             throw new RuntimeException("Account is not activated.");
         }
 
-        String jwt = jwtService.generateToken(user);
+        // Cost factor raised since this hash was made: store a stronger one, off the login path
+        if (passwordHashingService.needsRehash(hash)) {
+            int userId = user.getId();
+            passwordHashingService.rehashLater(request.getPassword(), newHash -> userRepo.updatePassword(userId, newHash));
+        }
 
-        removeAllTokenByUser(user);
-        saveUserToken(jwt, user);
+        // One session per user: the new token revokes every earlier one
+        user.setTokenGeneration(tokenRevocationService.revokeAll(user.getEmail()));
+        String jwt = jwtService.generateToken(user);
 
         return new AuthDTO(jwt, "User Login Successful");
     }
 
+    // Revokes the caller's token (and any other the user still holds)
+    public void logout(String token) {
+        String email;
+        try {
+            email = jwtService.extractUserName(token);
+        } catch (RuntimeException e) {
+            return; // expired or forged: nothing left to revoke
+        }
+        tokenRevocationService.revokeAll(email);
+    }
+
     public String activeUser(int id) {
         User user = userRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not Found with this ID " + id));
 
         user.setActive(true);
         userRepo.save(user);
+        userStatusService.invalidate(user.getEmail()); // tokens work on the next request
         return "User Activated Successfully!";
     }
 }
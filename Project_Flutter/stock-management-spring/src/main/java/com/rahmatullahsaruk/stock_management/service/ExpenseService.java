@@ -1,11 +1,11 @@
 package com.rahmatullahsaruk.stock_management.service;
 
 import com.rahmatullahsaruk.stock_management.entity.Expense;
+import com.rahmatullahsaruk.stock_management.entity.Money;
 import com.rahmatullahsaruk.stock_management.repository.ExpenseRepo;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,30 +49,23 @@ public class ExpenseService {
 
     // ---- Aggregations ----
 
-    public Double getTodayExp() {
+    public Money getTodayExp() {
         LocalDate today = LocalDate.now();
-        LocalDateTime start = today.atStartOfDay();
-        LocalDateTime end   = today.atTime(23, 59, 59);
-        return coalesce(expenseRepository.getExpensesBetween(start, end));
+        return expensesBetween(today, today.plusDays(1));
     }
 
-    public Double getLast7DaysExp() {
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(6); // inclusive: 7 days total
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end   = endDate.atTime(23, 59, 59);
-        return coalesce(expenseRepository.getExpensesBetween(start, end));
+    public Money getLast7DaysExp() {
+        LocalDate today = LocalDate.now();
+        return expensesBetween(today.minusDays(6), today.plusDays(1)); // 7 days including today
     }
 
-    public Double getLast30DaysExp() {
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(29); // inclusive: 30 days total
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end   = endDate.atTime(23, 59, 59);
-        return coalesce(expenseRepository.getExpensesBetween(start, end));
+    public Money getLast30DaysExp() {
+        LocalDate today = LocalDate.now();
+        return expensesBetween(today.minusDays(29), today.plusDays(1)); // 30 days including today
     }
 
-    private Double coalesce(Double v) {
-        return v == null ? 0.0d : v;
+    // Expenses over [from, to)
+    private Money expensesBetween(LocalDate from, LocalDate to) {
+        return Money.ofCents(expenseRepository.sumCents(from, to));
     }
 }
@@ -0,0 +1,309 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.dto.ProductDTO;
+import com.rahmatullahsaruk.stock_management.dto.ReorderDTO;
+import com.rahmatullahsaruk.stock_management.dto.ReorderReportDTO;
+import com.rahmatullahsaruk.stock_management.dto.SupplierReorderDTO;
+import com.rahmatullahsaruk.stock_management.entity.DemandForecast;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.entity.NumberSequence;
+import com.rahmatullahsaruk.stock_management.entity.Supplier;
+import com.rahmatullahsaruk.stock_management.repository.DemandForecastRepo;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceItemRepo;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceRepo;
+import com.rahmatullahsaruk.stock_management.repository.NumberSequenceRepo;
+import com.rahmatullahsaruk.stock_management.repository.SupplierRepo;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Demand forecasts and reorder points.
+ *
+ * A nightly job reads invoice lines it has not seen yet, in chunks of invoice ids
+ * starting from a cursor in number_sequence, and folds each product's daily units into
+ * a small model: exponential smoothing of the daily level with an additive weekly season.
+ * Each chunk, its model updates and the cursor move commit together, so a crashed run
+ * resumes where it stopped and nightly runs only read the day's new invoices.
+ *
+ * Invoice ids are handed out when a checkout inserts, not when it commits, so a lower id
+ * can become visible after a higher one. A run therefore notes the highest committed id,
+ * waits {@code forecast.safety-lag-ms} for checkouts holding lower ids to commit, and only
+ * then reads up to it. A checkout that stays open longer than the lag is never read.
+ *
+ * The reorder report applies the models to current stock: the reorder point is the
+ * forecast demand over the supplier's lead time plus safety stock, and the suggested
+ * order tops stock up to cover lead time plus the review period.
+ *
+ * Edits and deletes of invoices the job has already read are not taken back.
+ */
+@Service
+public class ForecastService {
+
+    private static final Logger log = LoggerFactory.getLogger(ForecastService.class);
+
+    static final String CURSOR = "forecast.invoice";
+
+    private final InvoiceRepo invoiceRepo;
+    private final InvoiceItemRepo invoiceItemRepo;
+    private final DemandForecastRepo forecastRepo;
+    private final NumberSequenceRepo sequenceRepo;
+    private final SupplierRepo supplierRepo;
+    private final ProductService productService;
+    private final TransactionTemplate transaction;
+    private final int chunkSize;
+    private final double alpha;
+    private final double gamma;
+    private final int defaultLeadTimeDays;
+    private final int reviewDays;
+    private final double serviceZ;
+    private final long safetyLagMs;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ForecastService(InvoiceRepo invoiceRepo, InvoiceItemRepo invoiceItemRepo, DemandForecastRepo forecastRepo,
+                           NumberSequenceRepo sequenceRepo, SupplierRepo supplierRepo, ProductService productService,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${forecast.chunk-size:1000}") int chunkSize,
+                           @Value("${forecast.alpha:0.2}") double alpha,
+                           @Value("${forecast.gamma:0.1}") double gamma,
+                           @Value("${forecast.default-lead-time-days:7}") int defaultLeadTimeDays,
+                           @Value("${forecast.review-days:7}") int reviewDays,
+                           @Value("${forecast.service-z:1.65}") double serviceZ,
+                           @Value("${forecast.safety-lag-ms:30000}") long safetyLagMs) {
+        this.invoiceRepo = invoiceRepo;
+        this.invoiceItemRepo = invoiceItemRepo;
+        this.forecastRepo = forecastRepo;
+        this.sequenceRepo = sequenceRepo;
+        this.supplierRepo = supplierRepo;
+        this.productService = productService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.alpha = alpha;
+        this.gamma = gamma;
+        this.defaultLeadTimeDays = defaultLeadTimeDays;
+        this.reviewDays = reviewDays;
+        this.serviceZ = serviceZ;
+        this.safetyLagMs = Math.max(0, safetyLagMs);
+    }
+
+    @PostConstruct
+    void createCursor() {
+        try {
+            transaction.executeWithoutResult(status -> {
+                if (!sequenceRepo.existsById(CURSOR)) sequenceRepo.save(new NumberSequence(CURSOR, 1));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first
+        }
+    }
+
+    @Scheduled(cron = "${forecast.cron:0 30 2 * * *}")
+    public void scheduledRun() {
+        try {
+            Map<String, Long> result = run();
+            log.info("Demand forecast updated: {}", result);
+        } catch (IllegalStateException e) {
+            log.info("Demand forecast skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every invoice added since the last run and folds all finished days into the
+     * models. Lines dated today or later wait in the model until their day is over.
+     *
+     * @return invoice-line rows read (grouped per product and day) and models brought up to date
+     * @throws IllegalStateException if a run is already in progress on this instance, or
+     *                               the thread is interrupted while waiting out the lag
+     */
+    public Map<String, Long> run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A forecast run is already in progress");
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            // Every id up to here was handed out already; its checkout has the lag to commit
+            Long maxId = invoiceRepo.findMaxId();
+            long rows = 0;
+            if (maxId != null) {
+                awaitSafetyLag();
+                long read;
+                while ((read = transaction.execute(status -> readChunk(today, maxId))) >= 0) rows += read;
+            }
+
+            long models = 0;
+            Long after = 0L;
+            while (after != null) {
+                Long from = after;
+                long[] page = new long[1];
+                after = transaction.execute(status -> closePage(from, today, page));
+                models += page[0];
+            }
+            return Map.of("rows", rows, "products", models);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void awaitSafetyLag() {
+        try {
+            Thread.sleep(safetyLagMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Forecast run interrupted");
+        }
+    }
+
+    // One chunk of invoice ids; -1 once the cursor has passed maxId
+    private long readChunk(LocalDate today, long maxId) {
+        // Row-locks the cursor, so instances running at the same time take turns
+        sequenceRepo.advance(CURSOR, 0);
+        long next = sequenceRepo.findNextValue(CURSOR);
+        if (next > maxId) return -1;
+        long upTo = Math.min(maxId, next - 1 + chunkSize);
+
+        List<Object[]> rows = invoiceItemRepo.sumUnitsByProductAndDayForInvoices(next - 1, upTo);
+        List<Long> ids = new ArrayList<>();
+        for (Object[] row : rows) ids.add((Long) row[0]);
+        Map<Long, DemandForecast> models = new HashMap<>();
+        for (DemandForecast model : forecastRepo.findAllById(ids)) models.put(model.getProductId(), model);
+
+        for (Object[] row : rows) {
+            if (row[1] == null) continue; // undated invoice
+            LocalDate day = (LocalDate) row[1];
+            if (day.isAfter(today)) day = today;
+            LocalDate first = day;
+            DemandForecast model = models.computeIfAbsent((Long) row[0], id -> new DemandForecast(id, first.minusDays(1)));
+            observe(model, day, ((Number) row[2]).longValue());
+        }
+        forecastRepo.saveAll(models.values());
+        sequenceRepo.advance(CURSOR, upTo + 1 - next);
+        return rows.size();
+    }
+
+    // Folds every model in the page up to yesterday; returns the last id, or null after the last page
+    private Long closePage(Long after, LocalDate today, long[] count) {
+        sequenceRepo.advance(CURSOR, 0);
+        List<DemandForecast> page = forecastRepo.findByProductIdGreaterThanOrderByProductId(after, Limit.of(chunkSize));
+        for (DemandForecast model : page) {
+            if (foldThrough(model, today.minusDays(1).toEpochDay())) count[0]++;
+        }
+        forecastRepo.saveAll(page);
+        return page.size() < chunkSize ? null : page.get(page.size() - 1).getProductId();
+    }
+
+    // ---- Model ----
+
+    // Lines for a day already folded (an invoice dated in the past) count on the open day
+    private void observe(DemandForecast model, LocalDate day, long units) {
+        foldThrough(model, day.toEpochDay() - 1);
+        model.setPendingUnits(model.getPendingUnits() + units);
+    }
+
+    private boolean foldThrough(DemandForecast model, long lastDay) {
+        long day = model.getLastFoldedDay().toEpochDay();
+        if (day >= lastDay) return false;
+        double[] season = model.getSeason().clone(); // a new array, so the change is seen on flush
+        while (day < lastDay) {
+            fold(model, season, ++day, model.getPendingUnits());
+            model.setPendingUnits(0);
+        }
+        model.setSeason(season);
+        model.setLastFoldedDay(LocalDate.ofEpochDay(lastDay));
+        return true;
+    }
+
+    private void fold(DemandForecast model, double[] season, long day, long units) {
+        int n = model.getDaysObserved();
+        int weekday = Math.floorMod(day, DemandForecast.SEASON);
+        // Plain averages while history is short, so early days are not pulled towards zero
+        double a = Math.max(alpha, 1.0 / (n + 1));
+        double g = Math.max(gamma, 1.0 / (n / DemandForecast.SEASON + 1));
+
+        double error = units - (model.getLevel() + season[weekday]);
+        if (n > 0) model.setErrorVariance(model.getErrorVariance() + a * (error * error - model.getErrorVariance()));
+        double level = model.getLevel() + a * (units - season[weekday] - model.getLevel());
+        season[weekday] += g * (units - level - season[weekday]);
+        model.setLevel(level);
+        model.setDaysObserved(n + 1);
+    }
+
+    private static double forecast(DemandForecast model, long day) {
+        return Math.max(0, model.getLevel() + model.getSeason()[Math.floorMod(day, DemandForecast.SEASON)]);
+    }
+
+    private static double demand(DemandForecast model, long from, int days) {
+        double sum = 0;
+        for (int i = 0; i < days; i++) sum += forecast(model, from + i);
+        return sum;
+    }
+
+    // ---- Reads ----
+
+    /**
+     * Reorder points and suggested orders for every forecast product (optionally of one
+     * supplier) against current stock, plus the suggested order per supplier.
+     */
+    public ReorderReportDTO getReorderReport(Long supplierId) {
+        long today = LocalDate.now().toEpochDay();
+        Map<Long, DemandForecast> models = new HashMap<>();
+        for (DemandForecast model : forecastRepo.findAll()) models.put(model.getProductId(), model);
+        Map<Long, Supplier> suppliers = new HashMap<>();
+        for (Supplier supplier : supplierRepo.findAll()) suppliers.put(supplier.getId(), supplier);
+
+        List<ReorderDTO> products = new ArrayList<>();
+        Map<Long, SupplierReorderDTO> bySupplier = new HashMap<>();
+        for (ProductDTO product : productService.getCatalog().getProducts()) {
+            if (supplierId != null && !supplierId.equals(product.getSupplierId())) continue;
+            DemandForecast model = models.get(product.getId());
+            if (model == null) continue;
+
+            Supplier supplier = product.getSupplierId() == null ? null : suppliers.get(product.getSupplierId());
+            int lead = leadTime(supplier);
+            double deviation = Math.sqrt(model.getErrorVariance());
+            long safety = (long) Math.ceil(serviceZ * deviation * Math.sqrt(lead));
+            long reorderPoint = (long) Math.ceil(demand(model, today, lead)) + safety;
+            long orderUpTo = (long) Math.ceil(demand(model, today, lead + reviewDays)
+                    + serviceZ * deviation * Math.sqrt(lead + reviewDays));
+            long suggested = product.getQuantity() <= reorderPoint ? Math.max(0, orderUpTo - product.getQuantity()) : 0;
+            double daily = Math.round(demand(model, today, DemandForecast.SEASON) / DemandForecast.SEASON * 100) / 100.0;
+
+            products.add(new ReorderDTO(product.getId(), product.getName(), product.getSupplierId(),
+                    product.getQuantity(), daily, lead, safety, reorderPoint, suggested));
+
+            if (supplier != null && suggested > 0) {
+                SupplierReorderDTO total = bySupplier.computeIfAbsent(supplier.getId(), id ->
+                        new SupplierReorderDTO(id, supplier.getCompanyName(), lead, 0, 0, Money.ZERO));
+                total.setProducts(total.getProducts() + 1);
+                total.setUnits(total.getUnits() + suggested);
+                total.setEstimatedCost(total.getEstimatedCost().plus(product.getCost().times(suggested)));
+            }
+        }
+
+        products.sort(Comparator.comparingLong((ReorderDTO r) -> r.getQuantity() - r.getReorderPoint())
+                .thenComparing(ReorderDTO::getProductId));
+        List<SupplierReorderDTO> totals = new ArrayList<>(bySupplier.values());
+        totals.sort(Comparator.comparingLong((SupplierReorderDTO s) -> -s.getEstimatedCost().cents())
+                .thenComparing(SupplierReorderDTO::getSupplierId));
+        return new ReorderReportDTO(products, totals);
+    }
+
+    private int leadTime(Supplier supplier) {
+        Integer days = supplier == null ? null : supplier.getLeadTimeDays();
+        return days == null || days < 1 ? defaultLeadTimeDays : days;
+    }
+}
@@ -0,0 +1,130 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rahmatullahsaruk.stock_management.dto.InvoiceDTO;
+import com.rahmatullahsaruk.stock_management.dto.InvoiceExportRow;
+import com.rahmatullahsaruk.stock_management.dto.InvoiceItemDTO;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class InvoiceExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER = "invoice_id,invoice_number,date,customer,email,phone,"
+            + "subtotal,discount,total,paid,product_id,product_name,quantity,price_at_sale";
+
+    private final InvoiceRepo invoiceRepo;
+    private final ObjectMapper objectMapper;
+
+    public InvoiceExportService(InvoiceRepo invoiceRepo, ObjectMapper objectMapper) {
+        this.invoiceRepo = invoiceRepo;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every invoice between {@code from} and {@code to} (inclusive days, both optional)
+     * to {@code out}, row by row. Only the invoice being written is held in memory, so the
+     * export runs in constant space however many invoices there are.
+     */
+    @Transactional(readOnly = true)
+    public void export(Format format, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        LocalDateTime start = from == null ? InvoiceService.MIN_DATE : from.atStartOfDay();
+        LocalDateTime end = to == null ? InvoiceService.MAX_DATE : to.plusDays(1).atStartOfDay();
+
+        try (Stream<InvoiceExportRow> rows = invoiceRepo.streamExportRows(start, end)) {
+            if (format == Format.CSV) writeCsv(rows.iterator(), out);
+            else writeNdjson(rows.iterator(), out);
+        }
+    }
+
+    // One JSON object per invoice, items nested, newline separated
+    private void writeNdjson(Iterator<InvoiceExportRow> rows, OutputStream out) throws IOException {
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.setRootValueSeparator(new SerializedString("\n"));
+
+        InvoiceDTO current = null;
+        while (rows.hasNext()) {
+            InvoiceExportRow row = rows.next();
+            if (current == null || !current.getId().equals(row.getInvoiceId())) {
+                if (current != null) objectMapper.writeValue(gen, current);
+                current = header(row);
+            }
+            if (row.getProductId() != null) current.getItems().add(line(row));
+        }
+        if (current != null) {
+            objectMapper.writeValue(gen, current);
+            gen.writeRaw('\n');
+        }
+        gen.flush();
+    }
+
+    // One CSV row per invoice line; invoices without lines get one row with empty line columns
+    private void writeCsv(Iterator<InvoiceExportRow> rows, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        w.write(CSV_HEADER);
+        w.write('\n');
+        while (rows.hasNext()) {
+            InvoiceExportRow r = rows.next();
+            w.write(r.getInvoiceId() + "," + csv(r.getInvoiceNumber()) + "," + nullToEmpty(r.getDate()) + ","
+                    + csv(r.getName()) + "," + csv(r.getEmail()) + "," + csv(r.getPhone()) + ","
+                    + r.getSubtotal() + "," + r.getDiscount() + "," + r.getTotal() + "," + r.getPaid() + ","
+                    + nullToEmpty(r.getProductId()) + "," + csv(r.getProductName()) + ","
+                    + nullToEmpty(r.getQuantity()) + "," + nullToEmpty(r.getPriceAtSale()));
+            w.write('\n');
+        }
+        w.flush();
+    }
+
+    private static InvoiceDTO header(InvoiceExportRow row) {
+        InvoiceDTO dto = new InvoiceDTO();
+        dto.setId(row.getInvoiceId());
+        dto.setInvoiceNumber(row.getInvoiceNumber());
+        dto.setDate(row.getDate());
+        dto.setName(row.getName());
+        dto.setEmail(row.getEmail());
+        dto.setPhone(row.getPhone());
+        dto.setSubtotal(row.getSubtotal());
+        dto.setDiscount(row.getDiscount());
+        dto.setTotal(row.getTotal());
+        dto.setPaid(row.getPaid());
+        dto.setItems(new ArrayList<>());
+        return dto;
+    }
+
+    private static InvoiceItemDTO line(InvoiceExportRow row) {
+        InvoiceItemDTO dto = new InvoiceItemDTO();
+        dto.setProductId(row.getProductId());
+        dto.setProductName(row.getProductName());
+        dto.setQuantity(row.getQuantity());
+        dto.setPriceAtSale(row.getPriceAtSale());
+        return dto;
+    }
+
+    private static String nullToEmpty(Object v) {
+        return v == null ? "" : v.toString();
+    }
+
+    private static String csv(String v) {
+        if (v == null) return "";
+        if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0 && v.indexOf('\r') < 0) return v;
+        return '"' + v.replace("\"", "\"\"") + '"';
+    }
+}
@@ -24,7 +24,7 @@ public class InvoiceItemService {
 
     // Get all invoice items
     public List<InvoiceItemDTO> getAllInvoiceItems() {
-        return invoiceItemRepo.findAll()
+        return invoiceItemRepo.findAllWithProduct()
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -32,7 +32,7 @@ public class InvoiceItemService {
 
     // Get invoice item by ID
     public InvoiceItemDTO getInvoiceItemById(Long id) {
-        Optional<InvoiceItem> optional = invoiceItemRepo.findById(id);
+        Optional<InvoiceItem> optional = invoiceItemRepo.findWithProductById(id);
         return optional.map(this::convertToDTO).orElse(null);
     }
 
@@ -0,0 +1,160 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.entity.NumberSequence;
+import com.rahmatullahsaruk.stock_management.repository.NumberSequenceRepo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Invoice numbers like {@code INV-20241018-000123}: the sale date, then a value from the
+ * "invoice" row of {@code number_sequence}, unique across all app instances.
+ *
+ * Instances reserve values in blocks of {@code invoice.number.block-size} with one short
+ * transaction of their own and hand them out from memory, so a checkout costs no round
+ * trip. The next block is fetched in the background as soon as the current one is taken
+ * into use; a checkout only reserves one itself if both blocks run out, and never while
+ * holding the lock other checkouts wait on.
+ * Values a node reserved but never used (restart, rolled-back checkout, a block reserved
+ * by two checkouts at once) are skipped, so numbers are neither gap-free nor strictly
+ * increasing. The unique index on
+ * {@code invoices.invoice_number} is the final guard.
+ */
+@Service
+public class InvoiceNumberService {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceNumberService.class);
+
+    static final String SEQUENCE = "invoice";
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final NumberSequenceRepo sequenceRepo;
+    private final TransactionTemplate newTransaction;
+    private final int blockSize;
+    private final ExecutorService refiller = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "invoice-number-refill");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Guarded by this. Current block [next, limit) and prefetched block [spareNext, spareLimit)
+    private long next;
+    private long limit;
+    private long spareNext;
+    private long spareLimit;
+    private boolean refilling;
+
+    public InvoiceNumberService(NumberSequenceRepo sequenceRepo, PlatformTransactionManager transactionManager,
+                                @Value("${invoice.number.block-size:100}") int blockSize) {
+        this.sequenceRepo = sequenceRepo;
+        this.blockSize = Math.max(1, blockSize);
+        // Its own transaction: a reserved block stays reserved even if the checkout rolls back
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void createSequence() {
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                if (!sequenceRepo.existsById(SEQUENCE)) sequenceRepo.save(new NumberSequence(SEQUENCE, 1));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first
+        }
+    }
+
+    public String nextNumber(LocalDateTime date) {
+        return "INV-" + date.format(DAY) + "-" + String.format("%06d", nextValue());
+    }
+
+    long nextValue() {
+        synchronized (this) {
+            if (next < limit || takeSpare()) return take();
+        }
+        // Both blocks used up (the prefetch failed or fell behind). Reserved outside the
+        // monitor: the caller's checkout already holds a connection and this needs a second
+        // one, so other checkouts must not queue behind it holding theirs.
+        long start = reserveBlock();
+        synchronized (this) {
+            if (next == limit) {
+                next = start + 1;
+                limit = start + blockSize;
+            } else if (spareNext == spareLimit && blockSize > 1) {
+                // Another checkout installed a block meanwhile; keep this one as the spare
+                spareNext = start + 1;
+                spareLimit = start + blockSize;
+            }
+            return start;
+        }
+    }
+
+    // Guarded by this. Moves the prefetched block in once the current one is used up
+    private boolean takeSpare() {
+        if (spareNext == spareLimit) return false;
+        next = spareNext;
+        limit = spareLimit;
+        spareNext = spareLimit = 0;
+        return true;
+    }
+
+    // Guarded by this. Hands out the next value; a new spare is fetched as soon as the
+    // current block is the last one left, a whole block ahead of being needed
+    private long take() {
+        long value = next++;
+        if (!refilling && spareNext == spareLimit) {
+            refilling = true;
+            refiller.execute(this::refill);
+        }
+        return value;
+    }
+
+    private void refill() {
+        try {
+            long start = reserveBlock();
+            synchronized (this) {
+                if (next == limit) {
+                    next = start;
+                    limit = start + blockSize;
+                } else {
+                    spareNext = start;
+                    spareLimit = start + blockSize;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not prefetch invoice numbers; the next checkout will reserve them", e);
+        } finally {
+            synchronized (this) {
+                refilling = false;
+            }
+        }
+    }
+
+    // First value of a newly reserved block
+    private long reserveBlock() {
+        Long end = newTransaction.execute(status -> {
+            if (sequenceRepo.advance(SEQUENCE, blockSize) != 1) {
+                throw new IllegalStateException("Sequence '" + SEQUENCE + "' is missing from number_sequence");
+            }
+            return sequenceRepo.findNextValue(SEQUENCE);
+        });
+        return end - blockSize;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refiller.shutdownNow();
+    }
+}
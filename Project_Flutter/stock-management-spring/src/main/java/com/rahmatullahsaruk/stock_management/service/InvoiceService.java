@@ -1,82 +1,312 @@
 package com.rahmatullahsaruk.stock_management.service;
 
+import com.rahmatullahsaruk.stock_management.dto.InvoiceDTO;
+import com.rahmatullahsaruk.stock_management.dto.InvoicePageDTO;
 import com.rahmatullahsaruk.stock_management.entity.Invoice;
 import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.entity.Money;
 import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.exception.InsufficientStockException;
+import com.rahmatullahsaruk.stock_management.mapper.InvoiceMapper;
 import com.rahmatullahsaruk.stock_management.repository.InvoiceRepo;
 import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class InvoiceService {
 
     @Autowired private InvoiceRepo invoiceRepo;
     @Autowired private ProductRepo productRepo;
+    @Autowired private StockReservationService stockReservationService;
+    @Autowired private SalesRollupService salesRollupService;
+    @Autowired private MarginService marginService;
+    @Autowired private SalesRankingService salesRankingService;
+    @Autowired private ProductService productService;
+    @Autowired private InvoiceNumberService invoiceNumberService;
+    @Autowired private MeterRegistry meterRegistry;
+
+    // invoice.checkout{outcome}: save latency up to commit or rollback
+    private final Map<String, Timer> checkoutTimers = new HashMap<>();
+    private DistributionSummary checkoutLines;
+    private Counter stockConflicts;
+
+    @PostConstruct
+    void registerMetrics() {
+        for (String outcome : List.of("committed", "stock_conflict", "rolled_back")) {
+            checkoutTimers.put(outcome, Timer.builder("invoice.checkout")
+                    .description("Invoice save, including commit")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        checkoutLines = DistributionSummary.builder("invoice.checkout.lines")
+                .description("Lines per committed invoice")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(200.0)
+                .register(meterRegistry);
+        stockConflicts = Counter.builder("invoice.checkout.stock.conflicts")
+                .description("Checkouts refused because a line was out of stock")
+                .register(meterRegistry);
+    }
 
     @Transactional
     public Invoice save(Invoice invoice) {
+        CheckoutMetrics metrics = new CheckoutMetrics(invoice.getItems() == null ? 0 : invoice.getItems().size());
+        TransactionSynchronizationManager.registerSynchronization(metrics);
+
+        // Conditional UPDATE per product; nothing is read to sell stock
+        Set<Long> sold;
+        try {
+            sold = stockReservationService.reserve(invoice.getItems());
+        } catch (InsufficientStockException e) {
+            metrics.stockConflict = true;
+            throw e;
+        }
+        productService.productsChanged(sold); // catalog + live stream; takes effect on commit
         List<InvoiceItem> invoiceItems = new ArrayList<>();
 
         for (InvoiceItem item : invoice.getItems()) {
-            Product product = productRepo.findById(item.getProduct().getId())
-                    .orElseThrow(() -> new RuntimeException("Product not found with ID: " + item.getProduct().getId()));
-
-            int remainingQty = product.getQuantity() - item.getQuantity();
-            if (remainingQty < 0) throw new RuntimeException("Insufficient stock for product: " + product.getName());
-            product.setQuantity(remainingQty);
-            productRepo.save(product);
+            Product product = productRepo.getReferenceById(item.getProduct().getId());
 
             InvoiceItem invoiceItem = new InvoiceItem();
             invoiceItem.setInvoice(invoice);
             invoiceItem.setProduct(product);
             invoiceItem.setQuantity(item.getQuantity());
 
-            double clientPrice = item.getPriceAtSale(); // primitive double (default 0.0)
-            invoiceItem.setPriceAtSale(clientPrice > 0 ? clientPrice : product.getPrice());
+            Money clientPrice = item.getPriceAtSale(); // zero when the client left it out
+            // Only a missing client price makes the product proxy load its row
+            invoiceItem.setPriceAtSale(clientPrice.isPositive() ? clientPrice : product.getPrice());
 
             invoiceItems.add(invoiceItem);
         }
 
         invoice.setItems(invoiceItems);
+        marginService.snapshotCosts(invoiceItems);
 
         if (invoice.getDate() == null) invoice.setDate(LocalDateTime.now());
-        if (invoice.getInvoiceNumber() == null) invoice.setInvoiceNumber("INV-" + System.currentTimeMillis());
+        // Always assigned here: numbers are unique across instances, never chosen by the client
+        invoice.setInvoiceNumber(invoiceNumberService.nextNumber(invoice.getDate()));
 
         invoice.calculateTotals();
-        return invoiceRepo.save(invoice);
+        Invoice saved = invoiceRepo.save(invoice);
+        // Margin rows belong to products this checkout already holds; the day row is
+        // shared by every checkout, so it is taken last and held for the least time
+        marginService.recordSale(saved);
+        salesRollupService.recordSale(saved);
+        salesRankingService.recordSale(saved);
+        return saved;
+    }
+
+    // Replaces header fields and lines; the daily rollup and margins move from the old lines to the new ones
+    @Transactional
+    public Optional<Invoice> update(Long id, Invoice updatedData) {
+        return invoiceRepo.findWithItemsById(id).map(existing -> {
+            salesRollupService.reverseSale(existing);
+            marginService.reverseSale(existing);
+            salesRankingService.reverseSale(existing);
+
+            existing.setName(updatedData.getName());
+            existing.setEmail(updatedData.getEmail());
+            existing.setPhone(updatedData.getPhone());
+            existing.setDiscount(updatedData.getDiscount());
+            existing.setPaid(updatedData.getPaid());
+            // The invoice number is kept: it is the invoice's identity on receipts
+
+            // A line kept as it was keeps the cost it was sold at; only new or changed
+            // lines take the product's current cost
+            Map<Long, List<InvoiceItem>> previous = linesByProduct(existing.getItems());
+            List<InvoiceItem> repriced = new ArrayList<>();
+
+            existing.getItems().clear();
+            if (updatedData.getItems() != null) {
+                for (InvoiceItem item : updatedData.getItems()) {
+                    InvoiceItem same = takeUnchanged(previous, item);
+                    if (same != null) item.setCostAtSale(same.getCostAtSale());
+                    else repriced.add(item);
+                    item.setInvoice(existing);
+                    existing.getItems().add(item);
+                }
+            }
+
+            marginService.snapshotCosts(repriced);
+
+            existing.calculateTotals();
+            Invoice saved = invoiceRepo.save(existing);
+            marginService.recordSale(saved);
+            salesRollupService.recordSale(saved);
+            salesRankingService.recordSale(saved);
+            return saved;
+        });
+    }
+
+    private static Map<Long, List<InvoiceItem>> linesByProduct(List<InvoiceItem> items) {
+        Map<Long, List<InvoiceItem>> byProduct = new HashMap<>();
+        for (InvoiceItem item : items) {
+            if (item.getProduct() == null || item.getProduct().getId() == null) continue;
+            byProduct.computeIfAbsent(item.getProduct().getId(), k -> new ArrayList<>()).add(item);
+        }
+        return byProduct;
+    }
+
+    // Removes and returns a previous line with the same product and quantity, if any
+    private static InvoiceItem takeUnchanged(Map<Long, List<InvoiceItem>> previous, InvoiceItem item) {
+        if (item.getProduct() == null) return null;
+        List<InvoiceItem> candidates = previous.get(item.getProduct().getId());
+        if (candidates == null) return null;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (candidates.get(i).getQuantity() == item.getQuantity()) return candidates.remove(i);
+        }
+        return null;
     }
 
     public List<Invoice> getAll() { return invoiceRepo.findAll(); }
+
+    // ---- Keyset-paginated listing ----
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    static final LocalDateTime MIN_DATE = LocalDate.of(1970, 1, 1).atStartOfDay();
+    static final LocalDateTime MAX_DATE = LocalDate.of(9999, 12, 31).atStartOfDay();
+
+    /**
+     * One page of invoices, newest first. {@code from}/{@code to} are inclusive days,
+     * {@code customer} matches name, email or phone. Costs two queries per page
+     * (ids by keyset, then invoices + items + products by one fetch join) no matter
+     * how many invoices exist.
+     */
+    @Transactional
+    public InvoicePageDTO getPage(LocalDate from, LocalDate to, String customer, String cursor, Integer size) {
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        LocalDateTime afterDate = MAX_DATE;
+        long afterId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            afterDate = LocalDateTime.parse(parts[0]);
+            afterId = Long.parseLong(parts[1]);
+        }
+
+        List<Long> ids = invoiceRepo.findPageIds(
+                from == null ? MIN_DATE : from.atStartOfDay(),
+                to == null ? MAX_DATE : to.plusDays(1).atStartOfDay(),
+                afterDate,
+                afterId,
+                customer == null ? "" : customer.trim().toLowerCase(),
+                Limit.of(limit + 1));
+
+        boolean hasMore = ids.size() > limit;
+        if (hasMore) ids = ids.subList(0, limit);
+        if (ids.isEmpty()) return new InvoicePageDTO(List.of(), null);
+
+        Map<Long, Invoice> byId = new HashMap<>();
+        for (Invoice invoice : invoiceRepo.findAllWithItemsByIdIn(ids)) byId.put(invoice.getId(), invoice);
+
+        List<InvoiceDTO> page = new ArrayList<>(ids.size());
+        for (Long id : ids) page.add(InvoiceMapper.toDTO(byId.get(id)));
+
+        String next = null;
+        if (hasMore) {
+            InvoiceDTO last = page.get(page.size() - 1);
+            next = encodeCursor(last.getDate(), last.getId());
+        }
+        return new InvoicePageDTO(page, next);
+    }
+
+    private static String encodeCursor(LocalDateTime date, Long id) {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) throw new IllegalArgumentException(raw);
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
     public Optional<Invoice> getById(Long id) { return invoiceRepo.findById(id); }
-    public void delete(Long id) { invoiceRepo.deleteById(id); }
-
-    // ---- Sales dashboard helpers (null-safe) ----
-    public Double getTodaySales() {
-        LocalDateTime start = LocalDate.now().atStartOfDay();
-        LocalDateTime end = LocalDateTime.now();
-        Double v = invoiceRepo.getSalesBetween(start, end);
-        return v != null ? v : 0.0;
+
+    // Mapped inside the transaction from one entity-graph SELECT
+    @Transactional
+    public Optional<InvoiceDTO> getDTOById(Long id) {
+        return invoiceRepo.findWithItemsById(id).map(InvoiceMapper::toDTO);
+    }
+
+    @Transactional
+    public boolean delete(Long id) {
+        Optional<Invoice> invoice = invoiceRepo.findWithItemsById(id);
+        if (invoice.isEmpty()) return false;
+        salesRollupService.reverseSale(invoice.get());
+        marginService.reverseSale(invoice.get());
+        salesRankingService.reverseSale(invoice.get());
+        invoiceRepo.delete(invoice.get());
+        return true;
     }
 
-    public Double getLast7DaysSales() {
-        LocalDateTime start = LocalDate.now().minusDays(7).atStartOfDay();
-        LocalDateTime end = LocalDateTime.now();
-        Double v = invoiceRepo.getSalesBetween(start, end);
-        return v != null ? v : 0.0;
+    // ---- Sales dashboard helpers (read from daily_sales_rollup) ----
+    public Money getTodaySales() {
+        LocalDate today = LocalDate.now();
+        return salesRollupService.getRevenue(today, today.plusDays(1));
     }
 
-    public Double getLast30DaysSales() {
-        LocalDateTime start = LocalDate.now().minusDays(30).atStartOfDay();
-        LocalDateTime end = LocalDateTime.now();
-        Double v = invoiceRepo.getSalesBetween(start, end);
-        return v != null ? v : 0.0;
+    public Money getLast7DaysSales() {
+        LocalDate today = LocalDate.now();
+        return salesRollupService.getRevenue(today.minusDays(7), today.plusDays(1));
+    }
+
+    public Money getLast30DaysSales() {
+        LocalDate today = LocalDate.now();
+        return salesRollupService.getRevenue(today.minusDays(30), today.plusDays(1));
+    }
+
+    // Records a checkout once its transaction has finished, so commit time is included
+    private final class CheckoutMetrics implements TransactionSynchronization {
+
+        private final long start = System.nanoTime();
+        private final int lines;
+        boolean stockConflict;
+
+        CheckoutMetrics(int lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            String outcome = status == STATUS_COMMITTED ? "committed"
+                    : stockConflict ? "stock_conflict" : "rolled_back";
+            checkoutTimers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (status == STATUS_COMMITTED) checkoutLines.record(lines);
+            if (stockConflict) stockConflicts.increment();
+        }
     }
 }
@@ -0,0 +1,157 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.dto.MarginDTO;
+import com.rahmatullahsaruk.stock_management.dto.MarginReportDTO;
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceItemRepo;
+import com.rahmatullahsaruk.stock_management.repository.ProductMarginRepo;
+import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cost of goods sold and gross margin. Each invoice line carries the product's cost
+ * at sale time, and product_margin keeps running units / revenue / cost per product,
+ * so the margin report reads one row per product sold instead of every invoice line.
+ * Like the daily rollup, deltas are applied inside the caller's transaction.
+ *
+ * Category totals are summed from the product rows when read. A row per category
+ * would be updated by almost every checkout and serialize them on its lock.
+ */
+@Service
+public class MarginService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 200;
+
+    private final ProductMarginRepo marginRepo;
+    private final ProductRepo productRepo;
+    private final InvoiceItemRepo invoiceItemRepo;
+
+    public MarginService(ProductMarginRepo marginRepo, ProductRepo productRepo, InvoiceItemRepo invoiceItemRepo) {
+        this.marginRepo = marginRepo;
+        this.productRepo = productRepo;
+        this.invoiceItemRepo = invoiceItemRepo;
+    }
+
+    // Puts each product's current cost on the lines, one query for the whole invoice
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void snapshotCosts(List<InvoiceItem> items) {
+        List<Long> ids = new ArrayList<>(items.size());
+        for (InvoiceItem item : items) {
+            if (item.getProduct() != null && item.getProduct().getId() != null) ids.add(item.getProduct().getId());
+        }
+        if (ids.isEmpty()) return;
+
+        Map<Long, Money> costs = new HashMap<>();
+        for (Object[] row : productRepo.findCostsByIdIn(ids)) costs.put((Long) row[0], (Money) row[1]);
+        for (InvoiceItem item : items) {
+            if (item.getProduct() != null) item.setCostAtSale(costs.get(item.getProduct().getId()));
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSale(Invoice invoice) {
+        apply(invoice, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseSale(Invoice invoice) {
+        apply(invoice, -1);
+    }
+
+    private void apply(Invoice invoice, int sign) {
+        // units, revenue cents, cost cents per product; ascending ids, the same lock
+        // order as the stock reservation, so concurrent checkouts cannot deadlock
+        Map<Long, long[]> byProduct = new TreeMap<>();
+        for (InvoiceItem item : invoice.getItems()) {
+            if (item.getProduct() == null || item.getProduct().getId() == null) continue;
+            long[] sums = byProduct.computeIfAbsent(item.getProduct().getId(), id -> new long[3]);
+            sums[0] += item.getQuantity();
+            sums[1] = Math.addExact(sums[1], item.getPriceAtSale().times(item.getQuantity()).cents());
+            sums[2] = Math.addExact(sums[2], item.getCostAtSale().times(item.getQuantity()).cents());
+        }
+        byProduct.forEach((id, sums) -> {
+            if (marginRepo.increment(id, sign * sums[0], sign * sums[1], sign * sums[2]) == 0) {
+                marginRepo.addDelta(id, sign * sums[0], sign * sums[1], sign * sums[2]);
+            }
+        });
+    }
+
+    // ---- Reads ----
+
+    /**
+     * Totals, every category, and the {@code limit} products with the highest margin
+     * (optionally within one category). Two queries over product_margin.
+     */
+    @Transactional(readOnly = true)
+    public MarginReportDTO getReport(Product.Category category, Integer limit) {
+        int max = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        List<MarginDTO> categories = new ArrayList<>();
+        long units = 0, revenue = 0, cost = 0;
+        for (Object[] row : marginRepo.sumByCategory()) {
+            long u = ((Number) row[1]).longValue();
+            long r = ((Number) row[2]).longValue();
+            long c = ((Number) row[3]).longValue();
+            categories.add(margin(null, null, (Product.Category) row[0], u, r, c));
+            units += u;
+            revenue = Math.addExact(revenue, r);
+            cost = Math.addExact(cost, c);
+        }
+
+        List<MarginDTO> products = new ArrayList<>();
+        for (Object[] row : marginRepo.findTopByMargin(category, Limit.of(max))) {
+            products.add(margin((Long) row[0], (String) row[1], (Product.Category) row[2],
+                    (Long) row[3], (Long) row[4], (Long) row[5]));
+        }
+
+        MarginDTO total = margin(null, null, null, units, revenue, cost);
+        return new MarginReportDTO(total.getRevenue(), total.getCost(), total.getMargin(), total.getMarginPercent(),
+                categories, products);
+    }
+
+    private static MarginDTO margin(Long productId, String name, Product.Category category,
+                                    long units, long revenueCents, long costCents) {
+        long margin = Math.subtractExact(revenueCents, costCents);
+        Double percent = revenueCents == 0 ? null : Math.round(margin * 10_000.0 / revenueCents) / 100.0;
+        return new MarginDTO(productId, name, category, units, Money.ofCents(revenueCents),
+                Money.ofCents(costCents), Money.ofCents(margin), percent);
+    }
+
+    // ---- Backfill / rebuild ----
+
+    /**
+     * Recomputes product_margin from invoice lines. Used for the initial backfill and to
+     * repair drift; lines sold before costs were recorded count at zero cost.
+     *
+     * @return number of product rows written
+     */
+    @Transactional
+    public int rebuild() {
+        marginRepo.deleteAllRows();
+        return marginRepo.insertAggregatedFromInvoiceItems();
+    }
+
+    // First start after upgrading: fill the new table from existing invoice lines
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (marginRepo.count() == 0 && invoiceItemRepo.count() > 0) {
+            rebuild();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs BCrypt on a small dedicated pool so a burst of logins (shift change) cannot take
+ * every CPU from the rest of the API. At most {@code security.hashing.threads} hashes run
+ * at once and {@code security.hashing.queue} more may wait; beyond that, or when a hash
+ * waits longer than {@code security.hashing.timeout-ms}, the login gets a 503 and the
+ * client retries, instead of piling more work onto a saturated machine.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    // Hash of a random string, checked for unknown emails so they cost the same as known ones
+    private final String dummyHash;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${security.hashing.threads:0}") int threads,
+                                  @Value("${security.hashing.queue:64}") int queue,
+                                  @Value("${security.hashing.timeout-ms:10000}") long timeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = timeoutMs;
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = passwordEncoder.encode(Long.toHexString(System.nanoTime()));
+    }
+
+    /**
+     * Checks {@code raw} against {@code hash}; a null hash (unknown user) is checked against
+     * a dummy so the caller cannot tell the two apart by response time.
+     *
+     * @throws ResponseStatusException 503 when the hashing pool is saturated
+     */
+    public boolean matches(String raw, String hash) {
+        if (raw == null) return false;
+        String target = hash != null ? hash : dummyHash;
+        boolean ok = run(() -> passwordEncoder.matches(raw, target));
+        return ok && hash != null;
+    }
+
+    // True when the stored hash was made with a lower cost than the one now configured
+    public boolean needsRehash(String hash) {
+        return hash != null && passwordEncoder.upgradeEncoding(hash);
+    }
+
+    /**
+     * Re-hashes {@code raw} at the current cost in the background and hands the result to
+     * {@code store}. Skipped when the pool is busy; the next login tries again.
+     */
+    public void rehashLater(String raw, Consumer<String> store) {
+        try {
+            executor.execute(() -> {
+                try {
+                    store.accept(passwordEncoder.encode(raw));
+                } catch (RuntimeException e) {
+                    log.warn("Password rehash failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Hashing pool busy, password rehash deferred");
+        }
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw busy();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw busy();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private static ResponseStatusException busy() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many logins in progress, please retry");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
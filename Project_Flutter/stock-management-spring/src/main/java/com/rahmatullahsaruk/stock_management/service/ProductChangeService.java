@@ -0,0 +1,150 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.dto.ProductChangesDTO;
+import com.rahmatullahsaruk.stock_management.dto.ProductDTO;
+import com.rahmatullahsaruk.stock_management.entity.NumberSequence;
+import com.rahmatullahsaruk.stock_management.entity.ProductTombstone;
+import com.rahmatullahsaruk.stock_management.mapper.ProductMapper;
+import com.rahmatullahsaruk.stock_management.repository.NumberSequenceRepo;
+import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import com.rahmatullahsaruk.stock_management.repository.ProductTombstoneRepo;
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Stamps the change sequence on product inserts, updates and tombstones, and answers
+ * "what changed since N" for catalog delta sync.
+ *
+ * The sequence is a number_sequence row, bumped just before the writing transaction
+ * commits. Its row lock is held until that commit, so on every instance sequences
+ * commit in the order they were handed out, and the committed row value is a version
+ * every client can trust: a client that has seen version N has seen every change up
+ * to N, and nothing it skips can commit later with a lower sequence. Taking the row
+ * last keeps that lock to the final statements of each transaction.
+ */
+@Service
+public class ProductChangeService {
+
+    static final String SEQUENCE = "product_change";
+
+    // Key for the changes collected by the current transaction
+    private static final Object TX_CHANGES_KEY = new Object();
+
+    private final ProductRepo productRepo;
+    private final ProductTombstoneRepo tombstoneRepo;
+    private final NumberSequenceRepo sequenceRepo;
+    private final TransactionTemplate transaction;
+
+    public ProductChangeService(ProductRepo productRepo, ProductTombstoneRepo tombstoneRepo,
+                                NumberSequenceRepo sequenceRepo, PlatformTransactionManager transactionManager) {
+        this.productRepo = productRepo;
+        this.tombstoneRepo = tombstoneRepo;
+        this.sequenceRepo = sequenceRepo;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // First start: continue after whatever sequences are already stamped
+    @PostConstruct
+    void createSequence() {
+        try {
+            transaction.executeWithoutResult(status -> {
+                if (sequenceRepo.existsById(SEQUENCE)) return;
+                long max = Math.max(productRepo.findMaxChangeSeq(), tombstoneRepo.findMaxChangeSeq());
+                sequenceRepo.save(new NumberSequence(SEQUENCE, max + 1));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first
+        }
+    }
+
+    /**
+     * Marks products as inserted or updated by the current transaction. Every product
+     * written by one transaction shares a sequence, so a checkout touching ten products
+     * is one change, not ten.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productsWritten(Collection<Long> productIds) {
+        changes().written.addAll(productIds);
+    }
+
+    // Leaves a tombstone, stamped at commit like any other change
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productDeleted(Long productId) {
+        changes().deleted.add(productId);
+    }
+
+    private Changes changes() {
+        Changes bound = (Changes) TransactionSynchronizationManager.getResource(TX_CHANGES_KEY);
+        if (bound != null) return bound;
+
+        Changes changes = new Changes();
+        TransactionSynchronizationManager.bindResource(TX_CHANGES_KEY, changes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                stamp(changes);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TX_CHANGES_KEY);
+            }
+        });
+        return changes;
+    }
+
+    private void stamp(Changes changes) {
+        // Row-locks the sequence until commit
+        sequenceRepo.advance(SEQUENCE, 1);
+        long seq = sequenceRepo.findNextValue(SEQUENCE) - 1;
+        changes.written.removeAll(changes.deleted);
+        if (!changes.written.isEmpty()) productRepo.stampChangeSeq(changes.written, seq);
+        for (Long id : changes.deleted) tombstoneRepo.save(new ProductTombstone(id, seq));
+    }
+
+    // Highest committed sequence; every change up to it is visible
+    public long getVersion() {
+        return sequenceRepo.findNextValue(SEQUENCE) - 1;
+    }
+
+    /**
+     * Products inserted or updated and ids deleted after {@code since}. Without
+     * {@code since}, or when it is ahead of this server, the whole catalog is returned.
+     */
+    @Transactional(readOnly = true)
+    public ProductChangesDTO getChangesSince(Long since) {
+        // Taken before reading, so everything up to it is already visible to the queries below
+        long version = getVersion();
+
+        if (since == null || since > version) {
+            List<ProductDTO> all = productRepo.findAll().stream().map(ProductMapper::toDTO).toList();
+            return new ProductChangesDTO(version, true, all, List.of());
+        }
+        if (since == version) {
+            return new ProductChangesDTO(version, false, List.of(), List.of());
+        }
+
+        List<ProductDTO> changed = productRepo.findChangedBetween(since, version).stream()
+                .map(ProductMapper::toDTO)
+                .toList();
+        List<Long> deleted = tombstoneRepo.findDeletedIdsBetween(since, version);
+        return new ProductChangesDTO(version, false, changed, deleted);
+    }
+
+    // Ascending ids, the lock order used for product rows everywhere else
+    private static final class Changes {
+        final TreeSet<Long> written = new TreeSet<>();
+        final TreeSet<Long> deleted = new TreeSet<>();
+    }
+}
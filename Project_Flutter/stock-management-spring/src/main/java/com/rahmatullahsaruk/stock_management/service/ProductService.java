@@ -5,27 +5,70 @@ import com.rahmatullahsaruk.stock_management.dto.ProductDTO;
 import com.rahmatullahsaruk.stock_management.entity.Product;
 import com.rahmatullahsaruk.stock_management.mapper.ProductMapper;
 import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Product CRUD and the in-memory catalog served by GET /api/product/all.
+ *
+ * Single-node: the catalog version behind the ETag is bumped only by changes committed
+ * through this instance, so with several instances a client may get 304 for a catalog
+ * another node has since changed. Clients that must see every change use
+ * /api/product/changes, which reads the shared database sequence.
+ */
 @Service
 @Transactional
 public class ProductService {
 
     private final ProductRepo productRepo;
+    private final ProductChangeService productChangeService;
+    private final StockStreamService stockStreamService;
+
+    // ---- Catalog cache ----
+    // Bumped after every committed product or stock change. Seeded from the clock so an
+    // ETag handed out before a restart can never match a catalog built after it.
+    private final AtomicLong catalogVersion = new AtomicLong(System.currentTimeMillis());
+    private volatile Catalog catalog;
+
+    // catalog.read{cache}: hit = served from the snapshot, miss = reloaded from the database
+    private final Timer catalogHits;
+    private final Timer catalogMisses;
 
     @Autowired
-    public ProductService(ProductRepo productRepo) {
+    public ProductService(ProductRepo productRepo, ProductChangeService productChangeService,
+                          StockStreamService stockStreamService, MeterRegistry meterRegistry) {
         this.productRepo = productRepo;
+        this.productChangeService = productChangeService;
+        this.stockStreamService = stockStreamService;
+        this.catalogHits = catalogTimer(meterRegistry, "hit");
+        this.catalogMisses = catalogTimer(meterRegistry, "miss");
+    }
+
+    private static Timer catalogTimer(MeterRegistry registry, String cache) {
+        return Timer.builder("catalog.read")
+                .description("Catalog snapshot reads")
+                .tag("cache", cache)
+                .publishPercentileHistogram()
+                .register(registry);
     }
 
     public Product saveProduct(Product product) {
-        return productRepo.save(product);
+        Product saved = productRepo.save(product);
+        productChangeService.productsWritten(List.of(saved.getId()));
+        productsChanged(List.of(saved.getId()));
+        return saved;
     }
 
     public List<Product> getAllProducts() {
@@ -38,11 +81,72 @@ public class ProductService {
 
     public void deleteProduct(Long id) {
         productRepo.deleteById(id);
+        productChangeService.productDeleted(id);
+        productsChanged(List.of(id));
     }
 
     public List<ProductDTO> getAllProductDTOs() {
-        return productRepo.findAll().stream()
+        return getCatalog().getProducts();
+    }
+
+    /**
+     * Current catalog snapshot. Served from memory until a product or stock change
+     * commits; only the first read after that goes to the database.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Catalog getCatalog() {
+        long start = System.nanoTime();
+        long version = catalogVersion.get();
+        Catalog current = catalog;
+        if (current != null && current.getVersion() == version) {
+            catalogHits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return current;
+        }
+
+        List<ProductDTO> products = productRepo.findAll().stream()
                 .map(ProductMapper::toDTO)
-                .collect(Collectors.toList());
+                .toList();
+        Catalog loaded = new Catalog(version, products);
+        // If a change committed while we were loading, the version has moved on and
+        // this snapshot is simply replaced on the next read.
+        catalog = loaded;
+        catalogMisses.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return loaded;
+    }
+
+    /**
+     * Marks the cached catalog stale and pushes the new levels of {@code productIds} to
+     * stream subscribers. Inside a transaction both wait for the commit, so a concurrent
+     * reader cannot cache pre-commit data under the new version and a rolled-back
+     * checkout is never announced.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void productsChanged(Collection<Long> productIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    catalogVersion.incrementAndGet();
+                    stockStreamService.publish(productIds);
+                }
+            });
+        } else {
+            catalogVersion.incrementAndGet();
+            stockStreamService.publish(productIds);
+        }
+    }
+
+    // Immutable view of the catalog at one version
+    public static final class Catalog {
+        private final long version;
+        private final List<ProductDTO> products;
+
+        Catalog(long version, List<ProductDTO> products) {
+            this.version = version;
+            this.products = products;
+        }
+
+        public long getVersion() { return version; }
+        public List<ProductDTO> getProducts() { return products; }
     }
 }
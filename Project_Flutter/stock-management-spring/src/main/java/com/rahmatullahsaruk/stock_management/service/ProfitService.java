@@ -1,68 +1,147 @@
 package com.rahmatullahsaruk.stock_management.service;
 
 import com.rahmatullahsaruk.stock_management.dto.MonthlyProfitDTO;
+import com.rahmatullahsaruk.stock_management.dto.ProfitBucketDTO;
+import com.rahmatullahsaruk.stock_management.dto.ProfitRangeDTO;
 import com.rahmatullahsaruk.stock_management.dto.YearProfitSummaryDTO;
-import com.rahmatullahsaruk.stock_management.repository.ExpenseRepo;
-import com.rahmatullahsaruk.stock_management.repository.InvoiceRepo;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
 
 @Service
 public class ProfitService {
 
-    private final InvoiceRepo invoiceRepo;
-    private final ExpenseRepo expenseRepo;
+    // Longest range /profit/range answers; at day granularity that is ~7,300 buckets
+    public static final int MAX_RANGE_YEARS = 20;
 
-    public ProfitService(InvoiceRepo invoiceRepo, ExpenseRepo expenseRepo) {
-        this.invoiceRepo = invoiceRepo;
-        this.expenseRepo = expenseRepo;
+    private final TimeSeriesService timeSeries;
+
+    // analytics.profit.query{query}
+    private final Timer monthlyTimer;
+    private final Timer summaryTimer;
+    private final Timer rangeTimer;
+
+    public ProfitService(TimeSeriesService timeSeries, MeterRegistry meterRegistry) {
+        this.timeSeries = timeSeries;
+        this.monthlyTimer = queryTimer(meterRegistry, "monthly");
+        this.summaryTimer = queryTimer(meterRegistry, "summary");
+        this.rangeTimer = queryTimer(meterRegistry, "range");
     }
 
-    private static LocalDateTime startOfYear(int year) {
-        return LocalDate.of(year, 1, 1).atStartOfDay();
+    private static Timer queryTimer(MeterRegistry registry, String query) {
+        return Timer.builder("analytics.profit.query")
+                .description("Profit report queries")
+                .tag("query", query)
+                .publishPercentileHistogram()
+                .register(registry);
     }
 
-    private static LocalDateTime endOfYear(int year) {
-        return LocalDate.of(year, 12, 31).atTime(23, 59, 59);
+    private static LocalDate startOfYear(int year) {
+        return LocalDate.of(year, 1, 1);
     }
 
     public List<MonthlyProfitDTO> getMonthlyProfit(int year) {
-        LocalDateTime start = startOfYear(year);
-        LocalDateTime end   = endOfYear(year);
-
-        Map<Integer, Double> revenueByMonth = new HashMap<>();
-        for (Object[] row : invoiceRepo.sumByMonthBetween(start, end)) {
-            int m = ((Number) row[0]).intValue();
-            double sum = ((Number) row[1]).doubleValue();
-            revenueByMonth.put(m, sum);
+        return monthlyTimer.record(() -> monthlyProfit(year));
+    }
+
+    public YearProfitSummaryDTO getYearSummary(int year) {
+        return summaryTimer.record(() -> yearSummary(year));
+    }
+
+    /**
+     * Revenue, expenses and profit per bucket over [from, to), widened to whole buckets,
+     * each with its change against the same bucket one year earlier. Two queries in
+     * total, however many years the range covers.
+     *
+     * @throws IllegalArgumentException if the range is empty or longer than {@link #MAX_RANGE_YEARS}
+     */
+    public ProfitRangeDTO getProfitRange(LocalDate from, LocalDate to, TimeBucket bucket) {
+        if (!from.isBefore(to) || to.isAfter(from.plusYears(MAX_RANGE_YEARS))) {
+            throw new IllegalArgumentException("Range must be non-empty and at most " + MAX_RANGE_YEARS + " years");
+        }
+        return rangeTimer.record(() -> profitRange(from, to, bucket));
+    }
+
+    private ProfitRangeDTO profitRange(LocalDate from, LocalDate to, TimeBucket bucket) {
+        LocalDate start = bucket.start(from);
+        LocalDate end   = bucket.ceil(to);
+        // Read one extra year up front so every bucket has its year-over-year counterpart
+        LocalDate seriesStart = bucket.start(start.minusYears(1));
+
+        TimeSeriesService.Daily rev = timeSeries.revenueByDay(seriesStart, end);
+        TimeSeriesService.Daily exp = timeSeries.expensesByDay(seriesStart, end);
+
+        // Single pass: both day series are sorted, so each cursor only moves forward
+        long[] bounds = TimeSeriesService.bounds(seriesStart, end, bucket);
+        int n = bounds.length - 1;
+        long[] revenue = new long[n];
+        long[] expenses = new long[n];
+        int i = 0, j = 0;
+        for (int b = 0; b < n; b++) {
+            long limit = bounds[b + 1];
+            while (i < rev.size() && rev.epochDays()[i] < limit) {
+                revenue[b] = Math.addExact(revenue[b], rev.cents()[i++]);
+            }
+            while (j < exp.size() && exp.epochDays()[j] < limit) {
+                expenses[b] = Math.addExact(expenses[b], exp.cents()[j++]);
+            }
         }
 
-        Map<Integer, Double> expenseByMonth = new HashMap<>();
-        for (Object[] row : expenseRepo.sumByMonthBetween(start, end)) {
-            int m = ((Number) row[0]).intValue();
-            double sum = ((Number) row[1]).doubleValue();
-            expenseByMonth.put(m, sum);
+        List<ProfitBucketDTO> out = new ArrayList<>();
+        long totalRevenue = 0, totalExpenses = 0;
+        for (int b = Arrays.binarySearch(bounds, start.toEpochDay()); b < n; b++) {
+            LocalDate bucketStart = LocalDate.ofEpochDay(bounds[b]);
+            int prev = Arrays.binarySearch(bounds, 0, n, bucket.start(bucketStart.minusYears(1)).toEpochDay());
+            long profit = Math.subtractExact(revenue[b], expenses[b]);
+            long prevProfit = Math.subtractExact(revenue[prev], expenses[prev]);
+
+            out.add(new ProfitBucketDTO(bucketStart, LocalDate.ofEpochDay(bounds[b + 1]),
+                    Money.ofCents(revenue[b]), Money.ofCents(expenses[b]), Money.ofCents(profit),
+                    Money.ofCents(Math.subtractExact(revenue[b], revenue[prev])),
+                    Money.ofCents(Math.subtractExact(profit, prevProfit)),
+                    percentChange(prevProfit, profit)));
+            totalRevenue = Math.addExact(totalRevenue, revenue[b]);
+            totalExpenses = Math.addExact(totalExpenses, expenses[b]);
         }
 
+        return new ProfitRangeDTO(bucket.name(), Money.ofCents(totalRevenue), Money.ofCents(totalExpenses),
+                Money.ofCents(Math.subtractExact(totalRevenue, totalExpenses)), out);
+    }
+
+    // Relative to last year's magnitude, so a smaller loss reads as an improvement; two decimals
+    private static Double percentChange(long before, long after) {
+        if (before == 0) return null;
+        return Math.round((after - before) * 10_000.0 / Math.abs(before)) / 100.0;
+    }
+
+    private List<MonthlyProfitDTO> monthlyProfit(int year) {
+        LocalDate from = startOfYear(year);
+        LocalDate to   = startOfYear(year + 1);
+
+        // Revenue comes from the daily rollup: at most 366 rows instead of a year of invoices
+        Map<LocalDate, Money> revenueByMonth = timeSeries.revenue(from, to, TimeBucket.MONTH);
+        Map<LocalDate, Money> expenseByMonth = timeSeries.expenses(from, to, TimeBucket.MONTH);
+
         List<MonthlyProfitDTO> out = new ArrayList<>(12);
-        for (int m = 1; m <= 12; m++) {
-            double rev = revenueByMonth.getOrDefault(m, 0.0);
-            double exp = expenseByMonth.getOrDefault(m, 0.0);
-            out.add(new MonthlyProfitDTO(m, rev, exp, rev - exp));
+        for (Map.Entry<LocalDate, Money> month : revenueByMonth.entrySet()) {
+            Money rev = month.getValue();
+            Money exp = expenseByMonth.get(month.getKey());
+            out.add(new MonthlyProfitDTO(month.getKey().getMonthValue(), rev, exp, rev.minus(exp)));
         }
         return out;
     }
 
-    public YearProfitSummaryDTO getYearSummary(int year) {
-        LocalDateTime start = startOfYear(year);
-        LocalDateTime end   = endOfYear(year);
+    private YearProfitSummaryDTO yearSummary(int year) {
+        LocalDate from = startOfYear(year);
+        LocalDate to   = startOfYear(year + 1);
 
-        double revenue  = Optional.ofNullable(invoiceRepo.getSalesBetween(start, end)).orElse(0.0);
-        double expenses = Optional.ofNullable(expenseRepo.getExpensesBetween(start, end)).orElse(0.0);
+        Money revenue  = timeSeries.totalRevenue(from, to);
+        Money expenses = timeSeries.totalExpenses(from, to);
 
-        return new YearProfitSummaryDTO(year, revenue, expenses, revenue - expenses);
+        return new YearProfitSummaryDTO(year, revenue, expenses, revenue.minus(expenses));
     }
 }
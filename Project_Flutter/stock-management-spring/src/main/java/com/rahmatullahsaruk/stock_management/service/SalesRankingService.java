@@ -0,0 +1,209 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.dto.ProductDTO;
+import com.rahmatullahsaruk.stock_management.dto.ProductSalesDTO;
+import com.rahmatullahsaruk.stock_management.dto.TopProductsDTO;
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceItemRepo;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Best sellers and slow movers over the last N days, answered from memory.
+ *
+ * Each product keeps a ring of cumulative units sold, one slot per day for the last
+ * maxWindowDays + 1 days, so units sold in any window up to maxWindowDays is one
+ * subtraction. Committed checkouts, edits and deletes move the counters; they are
+ * seeded once at startup, before any request is served, from a per-day aggregate of
+ * recent invoice lines. A ranking
+ * is one pass over the catalog with a heap of n: O(products log n), no invoice scan.
+ *
+ * Single-node: after startup, checkouts made on other instances are not counted here.
+ */
+@Service
+public class SalesRankingService {
+
+    public static final int DEFAULT_N = 10;
+    public static final int MAX_N = 100;
+
+    // Best first: most units, then lowest id so equal counts rank the same way every time
+    private static final Comparator<ProductSalesDTO> BEST_SELLERS =
+            Comparator.comparingLong(ProductSalesDTO::getUnitsSold).reversed()
+                    .thenComparing(ProductSalesDTO::getProductId);
+    private static final Comparator<ProductSalesDTO> SLOW_MOVERS =
+            Comparator.comparingLong(ProductSalesDTO::getUnitsSold)
+                    .thenComparing(ProductSalesDTO::getProductId);
+
+    private final InvoiceItemRepo invoiceItemRepo;
+    private final ProductService productService;
+    private final int maxWindowDays;
+
+    // Guarded by this
+    private final Map<Long, DailyCounter> counters = new HashMap<>();
+
+    public SalesRankingService(InvoiceItemRepo invoiceItemRepo, ProductService productService,
+                               @Value("${analytics.top-products.max-window-days:90}") int maxWindowDays) {
+        this.invoiceItemRepo = invoiceItemRepo;
+        this.productService = productService;
+        this.maxWindowDays = maxWindowDays;
+    }
+
+    public int getMaxWindowDays() {
+        return maxWindowDays;
+    }
+
+    // Seeded while the context starts, before the web server takes requests: a checkout
+    // committing during the seed query could otherwise be counted by both the seed and its delta
+    @PostConstruct
+    synchronized void load() {
+        LocalDate from = LocalDate.now().minusDays(maxWindowDays);
+        for (Object[] row : invoiceItemRepo.sumUnitsByProductAndDaySince(from.atStartOfDay())) {
+            counter((Long) row[0]).add(((LocalDate) row[1]).toEpochDay(), ((Number) row[2]).longValue());
+        }
+    }
+
+    // Counted once the caller's transaction commits, so a rolled-back checkout never is
+    public void recordSale(Invoice invoice) {
+        afterCommit(invoice, 1);
+    }
+
+    public void reverseSale(Invoice invoice) {
+        afterCommit(invoice, -1);
+    }
+
+    private void afterCommit(Invoice invoice, int sign) {
+        if (invoice.getDate() == null) return;
+        long day = invoice.getDate().toLocalDate().toEpochDay();
+        // Read the lines now: by commit time an edit has already replaced them
+        Map<Long, Long> units = new TreeMap<>();
+        for (InvoiceItem item : invoice.getItems()) {
+            if (item.getProduct() == null || item.getProduct().getId() == null) continue;
+            units.merge(item.getProduct().getId(), (long) sign * item.getQuantity(), Long::sum);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(day, units);
+                }
+            });
+        } else {
+            add(day, units);
+        }
+    }
+
+    private synchronized void add(long day, Map<Long, Long> units) {
+        units.forEach((id, n) -> counter(id).add(day, n));
+    }
+
+    private DailyCounter counter(Long productId) {
+        return counters.computeIfAbsent(productId, id -> new DailyCounter(maxWindowDays + 1));
+    }
+
+    // ---- Reads ----
+
+    /**
+     * The {@code n} best sellers (products that sold in the window) and the {@code n}
+     * slowest movers (products in stock) over the last {@code windowDays} days, today
+     * included.
+     *
+     * @throws IllegalArgumentException if the window is not within 1..maxWindowDays
+     */
+    public TopProductsDTO getTopProducts(int windowDays, Integer n) {
+        if (windowDays < 1 || windowDays > maxWindowDays) {
+            throw new IllegalArgumentException("Window must be 1.." + maxWindowDays + " days");
+        }
+        int limit = n == null ? DEFAULT_N : Math.max(1, Math.min(n, MAX_N));
+        List<ProductDTO> catalog = productService.getCatalog().getProducts();
+
+        long today = LocalDate.now().toEpochDay();
+        PriorityQueue<ProductSalesDTO> best = new PriorityQueue<>(limit + 1, BEST_SELLERS.reversed());
+        PriorityQueue<ProductSalesDTO> slow = new PriorityQueue<>(limit + 1, SLOW_MOVERS.reversed());
+        synchronized (this) {
+            for (ProductDTO product : catalog) {
+                DailyCounter counter = counters.get(product.getId());
+                long sold = counter == null ? 0 : counter.unitsBetween(today - windowDays, today);
+                ProductSalesDTO row = new ProductSalesDTO(product.getId(), product.getName(), product.getQuantity(), sold);
+                if (sold > 0) offer(best, row, BEST_SELLERS, limit);
+                if (product.getQuantity() > 0) offer(slow, row, SLOW_MOVERS, limit);
+            }
+        }
+        return new TopProductsDTO(windowDays, drain(best, BEST_SELLERS), drain(slow, SLOW_MOVERS));
+    }
+
+    // Keeps the limit highest-ranked rows; the heap's head is the lowest-ranked one kept
+    private static void offer(PriorityQueue<ProductSalesDTO> heap, ProductSalesDTO row,
+                              Comparator<ProductSalesDTO> order, int limit) {
+        if (heap.size() < limit) {
+            heap.add(row);
+        } else if (order.compare(row, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(row);
+        }
+    }
+
+    private static List<ProductSalesDTO> drain(PriorityQueue<ProductSalesDTO> heap, Comparator<ProductSalesDTO> order) {
+        List<ProductSalesDTO> out = new ArrayList<>(heap);
+        out.sort(order);
+        return out;
+    }
+
+    /**
+     * Cumulative units sold per day in a ring indexed by epoch day. Slot d holds the units
+     * sold up to and including day d, for the newest {@code span} days up to the last day
+     * written; later days have sold nothing yet, so their total is the last day's.
+     */
+    static final class DailyCounter {
+        private final long[] cumulative;
+        private long lastDay = Long.MIN_VALUE;
+
+        DailyCounter(int span) {
+            this.cumulative = new long[span];
+        }
+
+        void add(long day, long units) {
+            int span = cumulative.length;
+            if (lastDay == Long.MIN_VALUE) {
+                lastDay = day;
+            } else if (day > lastDay) {
+                // Carry the running total over the days without sales
+                long total = cumulative[slot(lastDay)];
+                for (long d = Math.max(lastDay + 1, day - span + 1); d <= day; d++) cumulative[slot(d)] = total;
+                lastDay = day;
+            }
+            // The sale counts towards its own day and every later one; days older than
+            // the ring are never asked for, so the sale is simply in all of them
+            for (long d = Math.max(day, lastDay - span + 1); d <= lastDay; d++) cumulative[slot(d)] += units;
+        }
+
+        // Units sold in the days after {@code from}, up to and including {@code to}
+        long unitsBetween(long from, long to) {
+            return cumulativeAt(to) - cumulativeAt(from);
+        }
+
+        private long cumulativeAt(long day) {
+            if (lastDay == Long.MIN_VALUE) return 0;
+            if (day >= lastDay) return cumulative[slot(lastDay)];
+            // Only reachable for invoices dated in the future; the oldest day kept is the best answer
+            return cumulative[slot(Math.max(day, lastDay - cumulative.length + 1))];
+        }
+
+        private int slot(long day) {
+            return (int) Math.floorMod(day, (long) cumulative.length);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.repository.DailySalesRollupRepo;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceRepo;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Maintains daily_sales_rollup, the per-day revenue / item / invoice totals the
+ * dashboards read instead of scanning invoices. Deltas are applied inside the
+ * caller's transaction, so a rolled-back checkout never reaches the rollup.
+ */
+@Service
+public class SalesRollupService {
+
+    private final DailySalesRollupRepo rollupRepo;
+    private final InvoiceRepo invoiceRepo;
+
+    public SalesRollupService(DailySalesRollupRepo rollupRepo, InvoiceRepo invoiceRepo) {
+        this.rollupRepo = rollupRepo;
+        this.invoiceRepo = invoiceRepo;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSale(Invoice invoice) {
+        apply(invoice, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseSale(Invoice invoice) {
+        apply(invoice, -1);
+    }
+
+    private void apply(Invoice invoice, int sign) {
+        if (invoice.getDate() == null) return;
+        long items = 0;
+        for (InvoiceItem item : invoice.getItems()) items += item.getQuantity();
+        rollupRepo.addDelta(invoice.getDate().toLocalDate(), sign * invoice.getTotal().cents(), sign * items, sign);
+    }
+
+    // ---- Reads ----
+
+    // Revenue over [from, to)
+    public Money getRevenue(LocalDate from, LocalDate to) {
+        return Money.ofCents(rollupRepo.sumRevenueCents(from, to));
+    }
+
+    // ---- Backfill / rebuild ----
+
+    /**
+     * Recomputes the rollup rows for {@code from}..{@code to} (inclusive, both optional)
+     * straight from invoices. Used for the initial backfill and to repair drift.
+     *
+     * @return number of day rows written
+     */
+    @Transactional
+    public int rebuild(LocalDate from, LocalDate to) {
+        LocalDate start = from == null ? InvoiceService.MIN_DATE.toLocalDate() : from;
+        if (to != null) {
+            rollupRepo.deleteBetween(start, to.plusDays(1));
+            return rollupRepo.insertAggregatedFromInvoices(start.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        }
+        // Open-ended: everything up to the sentinel goes, and the day after the latest
+        // invoice bounds the insert (the sentinel's next day is beyond what MySQL stores)
+        rollupRepo.deleteBetween(start, InvoiceService.MAX_DATE.toLocalDate());
+        LocalDateTime last = invoiceRepo.findMaxDate();
+        if (last == null) return 0;
+        return rollupRepo.insertAggregatedFromInvoices(start.atStartOfDay(), last.toLocalDate().plusDays(1).atStartOfDay());
+    }
+
+    // First start after upgrading: fill the new table from existing invoices. Transactional
+    // itself, because calling rebuild() on this bypasses the proxy
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepo.count() == 0 && invoiceRepo.count() > 0) {
+            rebuild(null, null);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.dto.StockAlertDTO;
+import com.rahmatullahsaruk.stock_management.dto.StockAlertsDTO;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Low-stock / overstock detection for the whole catalog.
+ *
+ * Every product sits in two sorted sets: one keyed by quantity minus its low threshold,
+ * one by max capacity minus quantity. A product is low (or over) when its key is <= 0,
+ * so the alerts are a walk from the front of each set that stops at the first positive
+ * key: O(k) for k alerts, whatever the catalog size.
+ *
+ * The index is fed the committed state of changed products by StockStreamService and
+ * reports the threshold crossings each update caused.
+ *
+ * Single-node: the index is loaded from the database once, then only follows changes
+ * committed through this instance; stock moved on other instances is not reflected.
+ */
+@Service
+public class StockAlertService {
+
+    private static final Comparator<Entry> BY_LOW_SLACK =
+            Comparator.comparingInt((Entry e) -> e.lowSlack).thenComparing(e -> e.id);
+    private static final Comparator<Entry> BY_OVER_SLACK =
+            Comparator.comparingInt((Entry e) -> e.overSlack).thenComparing(e -> e.id);
+
+    private final ProductRepo productRepo;
+    private final int defaultLowThreshold;
+    private final int defaultMaxCapacity;
+
+    // Guarded by this
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> byLowSlack = new TreeSet<>(BY_LOW_SLACK);
+    private final TreeSet<Entry> byOverSlack = new TreeSet<>(BY_OVER_SLACK);
+    private boolean loaded;
+
+    public StockAlertService(ProductRepo productRepo,
+                             @Value("${stock.alert.default-low-threshold:5}") int defaultLowThreshold,
+                             @Value("${stock.alert.default-max-capacity:100}") int defaultMaxCapacity) {
+        this.productRepo = productRepo;
+        this.defaultLowThreshold = defaultLowThreshold;
+        this.defaultMaxCapacity = defaultMaxCapacity;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (loaded) return;
+        for (Product product : productRepo.findAll()) put(entryOf(product));
+        loaded = true;
+    }
+
+    public synchronized StockAlertsDTO getAlerts() {
+        load();
+        List<StockAlertDTO> low = new ArrayList<>();
+        for (Entry e : byLowSlack) {
+            if (e.lowSlack > 0) break;
+            low.add(e.alert(StockAlertDTO.Type.LOW_STOCK));
+        }
+        List<StockAlertDTO> over = new ArrayList<>();
+        for (Entry e : byOverSlack) {
+            if (e.overSlack > 0) break;
+            over.add(e.alert(StockAlertDTO.Type.OVERSTOCK));
+        }
+        return new StockAlertsDTO(low, over);
+    }
+
+    /**
+     * Re-indexes {@code changed} (as committed) and drops {@code deletedIds}.
+     *
+     * @return one alert per threshold crossed; products that stay on the same side emit nothing
+     */
+    public synchronized List<StockAlertDTO> apply(Collection<Product> changed, Collection<Long> deletedIds) {
+        load();
+        List<StockAlertDTO> transitions = new ArrayList<>();
+        for (Product product : changed) {
+            Entry next = entryOf(product);
+            Entry prev = put(next);
+
+            boolean wasLow = prev != null && prev.isLow();
+            boolean wasOver = prev != null && prev.isOver();
+            if (next.isLow() != wasLow) {
+                transitions.add(next.alert(wasLow ? StockAlertDTO.Type.LOW_STOCK_CLEARED : StockAlertDTO.Type.LOW_STOCK));
+            }
+            if (next.isOver() != wasOver) {
+                transitions.add(next.alert(wasOver ? StockAlertDTO.Type.OVERSTOCK_CLEARED : StockAlertDTO.Type.OVERSTOCK));
+            }
+        }
+        for (Long id : deletedIds) remove(id);
+        return transitions;
+    }
+
+    private Entry put(Entry entry) {
+        Entry prev = remove(entry.id);
+        entries.put(entry.id, entry);
+        byLowSlack.add(entry);
+        byOverSlack.add(entry);
+        return prev;
+    }
+
+    private Entry remove(Long id) {
+        Entry prev = entries.remove(id);
+        if (prev != null) {
+            byLowSlack.remove(prev);
+            byOverSlack.remove(prev);
+        }
+        return prev;
+    }
+
+    private Entry entryOf(Product p) {
+        int low = p.getLowThreshold() != null ? p.getLowThreshold() : defaultLowThreshold;
+        int max = p.getMaxCapacity() != null ? p.getMaxCapacity() : defaultMaxCapacity;
+        return new Entry(p.getId(), p.getName(), p.getQuantity(), low, max);
+    }
+
+    // Immutable, so its position in both sets never goes stale
+    private static final class Entry {
+        final Long id;
+        final String name;
+        final int quantity;
+        final int lowThreshold;
+        final int maxCapacity;
+        final int lowSlack;
+        final int overSlack;
+
+        Entry(Long id, String name, int quantity, int lowThreshold, int maxCapacity) {
+            this.id = id;
+            this.name = name;
+            this.quantity = quantity;
+            this.lowThreshold = lowThreshold;
+            this.maxCapacity = maxCapacity;
+            this.lowSlack = quantity - lowThreshold;
+            this.overSlack = maxCapacity - quantity;
+        }
+
+        boolean isLow() { return lowSlack <= 0; }
+        boolean isOver() { return overSlack <= 0; }
+
+        StockAlertDTO alert(StockAlertDTO.Type type) {
+            boolean lowType = type == StockAlertDTO.Type.LOW_STOCK || type == StockAlertDTO.Type.LOW_STOCK_CLEARED;
+            return new StockAlertDTO(id, name, quantity, lowType ? lowThreshold : maxCapacity, type);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.dto.StockShortageDTO;
+import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.exception.InsufficientStockException;
+import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Service
+public class StockReservationService {
+
+    private final ProductRepo productRepo;
+    private final ProductChangeService productChangeService;
+
+    public StockReservationService(ProductRepo productRepo, ProductChangeService productChangeService) {
+        this.productRepo = productRepo;
+        this.productChangeService = productChangeService;
+    }
+
+    /**
+     * Reserves stock for every line of an invoice.
+     * Each product gets one conditional UPDATE ("quantity >= requested"), issued in
+     * ascending id order so concurrent checkouts lock rows in the same order and cannot
+     * deadlock. The database does the check, so no SELECT or dirty check is needed and
+     * the guarantee holds across every app instance sharing the product table.
+     * If any line is short the caller's transaction is rolled back.
+     *
+     * @return ids of the products whose stock was taken
+     * @throws InsufficientStockException listing every line that cannot be served
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<Long> reserve(List<InvoiceItem> items) {
+        // Same product may appear on several lines; sum them so the check is done once.
+        Map<Long, Integer> requested = new TreeMap<>();
+        for (InvoiceItem item : items) {
+            if (item.getProduct() == null || item.getProduct().getId() == null) {
+                throw new RuntimeException("Invoice item has no product");
+            }
+            if (item.getQuantity() <= 0) {
+                throw new RuntimeException("Invalid quantity " + item.getQuantity()
+                        + " for product ID: " + item.getProduct().getId());
+            }
+            requested.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+
+        Map<Long, Integer> rejected = new TreeMap<>();
+        requested.forEach((id, qty) -> {
+            if (productRepo.decrementStock(id, qty) == 0) rejected.put(id, qty);
+        });
+        if (!rejected.isEmpty()) throw shortageOf(rejected);
+        productChangeService.productsWritten(requested.keySet());
+        return requested.keySet();
+    }
+
+    // Failure path only: read what is left so the error can name every short line.
+    private RuntimeException shortageOf(Map<Long, Integer> rejected) {
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepo.findAllById(rejected.keySet())) {
+            products.put(product.getId(), product);
+        }
+
+        List<StockShortageDTO> shortages = new ArrayList<>();
+        for (Map.Entry<Long, Integer> e : rejected.entrySet()) {
+            Product product = products.get(e.getKey());
+            if (product == null) return new RuntimeException("Product not found with ID: " + e.getKey());
+            shortages.add(new StockShortageDTO(product.getId(), product.getName(), e.getValue(), product.getQuantity()));
+        }
+        return new InsufficientStockException(shortages);
+    }
+}
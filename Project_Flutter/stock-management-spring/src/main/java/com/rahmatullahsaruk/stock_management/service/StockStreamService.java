@@ -0,0 +1,322 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.dto.StockAlertDTO;
+import com.rahmatullahsaruk.stock_management.dto.StockLevelDTO;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fan-out of live stock levels to /api/product/stream subscribers.
+ *
+ * Committed changes only record which product ids moved. One dispatcher thread
+ * drains that set, reads the changed products with a single query, feeds them to
+ * the alert index and hands the new levels and any threshold crossings to every
+ * subscriber, so a burst of checkouts costs one read however many terminals listen.
+ *
+ * Subscribers are async SseEmitters (no request thread held) written by a small
+ * shared sender pool, at most one write in flight per subscriber. Each subscriber
+ * buffers at most {@link #MAX_PENDING} entries; levels are keyed by product id so a
+ * newer level replaces an unsent older one. A client too slow to keep that bounded
+ * is disconnected; on reconnect it catches up through /api/product/changes. So is one
+ * whose single write stays blocked past {@link #WRITE_TIMEOUT_MS}: the pool gets a
+ * replacement thread for as long as that write holds its sender, so one stalled socket
+ * never starves the other subscribers.
+ *
+ * If the catalog read fails, the ids go back into the set and dispatch is retried
+ * with exponential backoff, up to {@link #MAX_RETRY_MS} apart.
+ */
+@Service
+public class StockStreamService {
+
+    static final long STREAM_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    static final int MAX_PENDING = 1000;
+    static final long WRITE_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+    static final long MAX_RETRY_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final long FIRST_RETRY_MS = 100;
+    private static final int SENDER_THREADS = 4;
+    private static final long HEARTBEAT_SECONDS = 25;
+
+    private final ProductRepo productRepo;
+    private final ProductChangeService productChangeService;
+    private final StockAlertService stockAlertService;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Set<Long> dirty = new HashSet<>(); // guarded by itself
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+    private long retryDelayMs; // dispatcher thread only
+
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(daemon("stock-stream-dispatch"));
+    private final ThreadPoolExecutor senders = new ThreadPoolExecutor(SENDER_THREADS, SENDER_THREADS,
+            0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), daemon("stock-stream-send"));
+
+    public StockStreamService(ProductRepo productRepo, ProductChangeService productChangeService,
+                              StockAlertService stockAlertService) {
+        this.productRepo = productRepo;
+        this.productChangeService = productChangeService;
+        this.stockAlertService = stockAlertService;
+        dispatcher.scheduleAtFixedRate(this::heartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        dispatcher.scheduleWithFixedDelay(this::checkWrites, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens a stream. The first event ("ready") carries the catalog version, so the
+     * client can fetch /api/product/changes?since= for anything it missed before it.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        try {
+            emitter.send(SseEmitter.event().name("ready").data(productChangeService.getVersion()));
+        } catch (IOException e) {
+            subscribers.remove(subscriber);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Called once the change is committed; never blocks the caller
+    void publish(Collection<Long> productIds) {
+        if (productIds.isEmpty()) return;
+        synchronized (dirty) {
+            dirty.addAll(productIds);
+        }
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        dispatchScheduled.set(false);
+        Set<Long> ids;
+        synchronized (dirty) {
+            if (dirty.isEmpty()) return;
+            ids = new HashSet<>(dirty);
+            dirty.clear();
+        }
+
+        List<Product> products;
+        try {
+            products = productRepo.findAllById(ids);
+        } catch (RuntimeException e) {
+            // Database hiccup: keep the ids and try again later rather than losing them
+            synchronized (dirty) {
+                dirty.addAll(ids);
+            }
+            retryDelayMs = retryDelayMs == 0 ? FIRST_RETRY_MS : Math.min(retryDelayMs * 2, MAX_RETRY_MS);
+            if (dispatchScheduled.compareAndSet(false, true)) {
+                dispatcher.schedule(this::dispatch, retryDelayMs, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        retryDelayMs = 0;
+        List<StockLevelDTO> levels = new ArrayList<>();
+        for (Product p : products) {
+            levels.add(new StockLevelDTO(p.getId(), p.getQuantity(), p.getChangeSeq()));
+            ids.remove(p.getId());
+        }
+        for (Long deletedId : ids) levels.add(StockLevelDTO.deleted(deletedId));
+
+        List<StockAlertDTO> alerts = stockAlertService.apply(products, ids);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(levels, alerts);
+        }
+    }
+
+    // Test hook, package-private on purpose: waits until every change published so far
+    // has been dispatched, so statement counts are not polluted by the background read
+    void awaitIdle() throws Exception {
+        dispatcher.submit(() -> { }).get();
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.ping();
+        }
+    }
+
+    private void checkWrites() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.checkWrite(now);
+        }
+    }
+
+    // Grows the pool while a timed-out write holds one of its threads, shrinks it once released
+    private synchronized void resizeSenders(int delta) {
+        int size = senders.getCorePoolSize() + delta;
+        if (delta > 0) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    // Close open streams before the web server's graceful shutdown starts waiting on them
+    @EventListener(ContextClosedEvent.class)
+    public void closeStreams() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // Guarded by this
+        private final Map<Long, StockLevelDTO> pending = new LinkedHashMap<>();
+        private final List<StockAlertDTO> pendingAlerts = new ArrayList<>();
+        private boolean ping;
+        private boolean sending;
+        private long writeStarted; // System.nanoTime() of the write in flight, 0 when idle
+        private Thread writer;
+        private boolean timedOut;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(List<StockLevelDTO> levels, List<StockAlertDTO> alerts) {
+            synchronized (this) {
+                for (StockLevelDTO level : levels) pending.put(level.getProductId(), level);
+                pendingAlerts.addAll(alerts);
+                if (pending.size() + pendingAlerts.size() > MAX_PENDING) {
+                    pending.clear();
+                    pendingAlerts.clear();
+                    drop(null);
+                    return;
+                }
+                if (sending) return;
+                sending = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        void ping() {
+            synchronized (this) {
+                ping = true;
+                if (sending) return;
+                sending = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        // Runs on a sender thread; sends until nothing is pending
+        private void drain() {
+            while (true) {
+                List<StockLevelDTO> batch;
+                List<StockAlertDTO> alerts;
+                boolean sendPing;
+                synchronized (this) {
+                    if (pending.isEmpty() && pendingAlerts.isEmpty() && !ping) {
+                        sending = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    alerts = new ArrayList<>(pendingAlerts);
+                    pending.clear();
+                    pendingAlerts.clear();
+                    sendPing = ping && batch.isEmpty() && alerts.isEmpty();
+                    ping = false;
+                    writeStarted = System.nanoTime();
+                    writer = Thread.currentThread();
+                }
+                Exception failure = null;
+                try {
+                    if (sendPing) emitter.send(SseEmitter.event().comment("ping"));
+                    if (!batch.isEmpty()) emitter.send(SseEmitter.event().name("stock").data(batch));
+                    if (!alerts.isEmpty()) emitter.send(SseEmitter.event().name("alert").data(alerts));
+                } catch (IOException | IllegalStateException e) {
+                    failure = e;
+                }
+                boolean late;
+                synchronized (this) {
+                    writeStarted = 0;
+                    writer = null;
+                    late = timedOut;
+                    if (late || failure != null) {
+                        pending.clear();
+                        pendingAlerts.clear();
+                        sending = false;
+                    }
+                }
+                if (late) {
+                    Thread.interrupted(); // clear checkWrite's interrupt before the thread is reused
+                    resizeSenders(-1);
+                    drop(failure != null ? failure : new IOException("Stream write timed out"));
+                    return;
+                }
+                if (failure != null) {
+                    drop(failure);
+                    return;
+                }
+            }
+        }
+
+        // Runs on the dispatcher: gives up on a write blocked past the timeout
+        void checkWrite(long now) {
+            synchronized (this) {
+                if (writeStarted == 0 || timedOut
+                        || now - writeStarted < TimeUnit.MILLISECONDS.toNanos(WRITE_TIMEOUT_MS)) return;
+                timedOut = true;
+                resizeSenders(1);
+                writer.interrupt();
+            }
+            subscribers.remove(this);
+        }
+
+        private void drop(Exception cause) {
+            subscribers.remove(this);
+            if (cause == null) emitter.complete();
+            else emitter.completeWithError(cause);
+        }
+    }
+}
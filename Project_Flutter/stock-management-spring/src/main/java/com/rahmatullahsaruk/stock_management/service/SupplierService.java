@@ -38,6 +38,8 @@ public class SupplierService {
             supplier.setEmail(updated.getEmail());
             supplier.setAddress(updated.getAddress());
             supplier.setCompanyName(updated.getCompanyName());
+            // Older clients don't send it; a missing value keeps the supplier's own
+            if (updated.getLeadTimeDays() != null) supplier.setLeadTimeDays(updated.getLeadTimeDays());
             return supplierRepo.save(supplier);
         }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Supplier not found with id " + id));
     }
@@ -0,0 +1,44 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Calendar buckets for time series reports. A bucket is the half-open range
+ * [{@link #start(LocalDate)}, {@link #next(LocalDate)}); weeks start on Monday (ISO).
+ */
+public enum TimeBucket {
+    DAY {
+        @Override public LocalDate start(LocalDate day) { return day; }
+        @Override public LocalDate next(LocalDate start) { return start.plusDays(1); }
+    },
+    WEEK {
+        @Override public LocalDate start(LocalDate day) { return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)); }
+        @Override public LocalDate next(LocalDate start) { return start.plusWeeks(1); }
+    },
+    MONTH {
+        @Override public LocalDate start(LocalDate day) { return day.withDayOfMonth(1); }
+        @Override public LocalDate next(LocalDate start) { return start.plusMonths(1); }
+    },
+    QUARTER {
+        @Override public LocalDate start(LocalDate day) { return day.withDayOfMonth(1).withMonth((day.getMonthValue() - 1) / 3 * 3 + 1); }
+        @Override public LocalDate next(LocalDate start) { return start.plusMonths(3); }
+    },
+    YEAR {
+        @Override public LocalDate start(LocalDate day) { return day.withDayOfYear(1); }
+        @Override public LocalDate next(LocalDate start) { return start.plusYears(1); }
+    };
+
+    /** First day of the bucket containing {@code day}. */
+    public abstract LocalDate start(LocalDate day);
+
+    /** First day of the bucket after the one starting at {@code start}. */
+    public abstract LocalDate next(LocalDate start);
+
+    /** {@code day} if it starts a bucket, otherwise the start of the following bucket. */
+    public LocalDate ceil(LocalDate day) {
+        LocalDate start = start(day);
+        return start.equals(day) ? day : next(start);
+    }
+}
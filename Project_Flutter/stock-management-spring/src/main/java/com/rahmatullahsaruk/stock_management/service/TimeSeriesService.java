@@ -0,0 +1,113 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.repository.DailySalesRollupRepo;
+import com.rahmatullahsaruk.stock_management.repository.ExpenseRepo;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Revenue and expenses bucketed by day, week, month, quarter or year.
+ *
+ * The database only ever sees a half-open range on an indexed date column and
+ * returns one row per day; folding days into buckets happens here, so the SQL
+ * stays the same for every bucket size and never wraps the column in a function.
+ */
+@Service
+public class TimeSeriesService {
+
+    private final DailySalesRollupRepo rollupRepo;
+    private final ExpenseRepo expenseRepo;
+
+    public TimeSeriesService(DailySalesRollupRepo rollupRepo, ExpenseRepo expenseRepo) {
+        this.rollupRepo = rollupRepo;
+        this.expenseRepo = expenseRepo;
+    }
+
+    /**
+     * Per-day cents in ascending day order, as two parallel primitive arrays.
+     * Days without a row are absent rather than zero.
+     */
+    public record Daily(long[] epochDays, long[] cents) {
+
+        static Daily of(List<Object[]> rows) {
+            long[] days = new long[rows.size()];
+            long[] cents = new long[rows.size()];
+            for (int i = 0; i < days.length; i++) {
+                Object[] row = rows.get(i);
+                days[i] = ((LocalDate) row[0]).toEpochDay();
+                cents[i] = ((Number) row[1]).longValue();
+            }
+            return new Daily(days, cents);
+        }
+
+        public int size() {
+            return epochDays.length;
+        }
+    }
+
+    /** One query: revenue per day over [from, to) from the daily rollup. */
+    public Daily revenueByDay(LocalDate from, LocalDate to) {
+        return Daily.of(rollupRepo.sumCentsByDay(from, to));
+    }
+
+    /** One query: expenses per day over [from, to). */
+    public Daily expensesByDay(LocalDate from, LocalDate to) {
+        return Daily.of(expenseRepo.sumCentsByDay(from, to));
+    }
+
+    /** Revenue per bucket for [from, to), keyed by bucket start; empty buckets are zero. */
+    public Map<LocalDate, Money> revenue(LocalDate from, LocalDate to, TimeBucket bucket) {
+        return fold(revenueByDay(from, to), from, to, bucket);
+    }
+
+    /** Expenses per bucket for [from, to), keyed by bucket start; empty buckets are zero. */
+    public Map<LocalDate, Money> expenses(LocalDate from, LocalDate to, TimeBucket bucket) {
+        return fold(expensesByDay(from, to), from, to, bucket);
+    }
+
+    public Money totalRevenue(LocalDate from, LocalDate to) {
+        return Money.ofCents(rollupRepo.sumRevenueCents(from, to));
+    }
+
+    public Money totalExpenses(LocalDate from, LocalDate to) {
+        return Money.ofCents(expenseRepo.sumCents(from, to));
+    }
+
+    /**
+     * Start of every bucket overlapping [from, to) as epoch days, followed by the
+     * end of the last one, so bucket {@code b} is [{@code bounds[b]}, {@code bounds[b + 1]}).
+     */
+    public static long[] bounds(LocalDate from, LocalDate to, TimeBucket bucket) {
+        if (!from.isBefore(to)) return new long[0];
+        long[] bounds = new long[16];
+        int n = 0;
+        LocalDate start = bucket.start(from);
+        while (true) {
+            if (n == bounds.length) bounds = Arrays.copyOf(bounds, n * 2);
+            bounds[n++] = start.toEpochDay();
+            if (!start.isBefore(to)) break;
+            start = bucket.next(start);
+        }
+        return Arrays.copyOf(bounds, n);
+    }
+
+    private static Map<LocalDate, Money> fold(Daily days, LocalDate from, LocalDate to, TimeBucket bucket) {
+        long[] bounds = bounds(from, to, bucket);
+        Map<LocalDate, Money> out = new LinkedHashMap<>();
+        int i = 0;
+        for (int b = 0; b + 1 < bounds.length; b++) {
+            long cents = 0;
+            while (i < days.size() && days.epochDays()[i] < bounds[b + 1]) {
+                cents = Math.addExact(cents, days.cents()[i++]);
+            }
+            out.put(LocalDate.ofEpochDay(bounds[b]), Money.ofCents(cents));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,60 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.repository.UserRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Token revocation as one counter per user instead of one row per token.
+ *
+ * Every token carries the user's token generation at issue time ("gen" claim). Login
+ * and logout bump users.token_generation, which revokes every token issued before.
+ * Checks read the generation through UserStatusService's cache, so they cost no query
+ * on most requests, and a revocation made on another instance applies here within
+ * that cache's TTL (immediately on the instance that made it).
+ */
+@Service
+public class TokenRevocationService {
+
+    private final UserRepo userRepo;
+    private final UserStatusService userStatusService;
+
+    public TokenRevocationService(UserRepo userRepo, UserStatusService userStatusService) {
+        this.userRepo = userRepo;
+        this.userStatusService = userStatusService;
+    }
+
+    public int currentGeneration(String email) {
+        return userStatusService.tokenGeneration(email);
+    }
+
+    /**
+     * Tokens issued before the user's last login or logout are revoked. A newer
+     * generation than the cached one is a token issued since the cache was loaded
+     * (possibly by another instance); generations only grow, so it is current.
+     */
+    public boolean isCurrent(String email, int tokenGeneration) {
+        return tokenGeneration >= currentGeneration(email);
+    }
+
+    /**
+     * Revokes every token the user holds.
+     *
+     * @return the new generation, to be put in the next token issued
+     */
+    @Transactional
+    public int revokeAll(String email) {
+        userRepo.bumpTokenGeneration(email);
+        int gen = userRepo.findTokenGeneration(email).orElse(0);
+        // After commit, so a concurrent reload cannot cache the old generation again
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userStatusService.invalidate(email);
+            }
+        });
+        return gen;
+    }
+}
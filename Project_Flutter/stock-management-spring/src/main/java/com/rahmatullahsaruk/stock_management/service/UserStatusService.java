@@ -0,0 +1,82 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.entity.User;
+import com.rahmatullahsaruk.stock_management.repository.UserRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Whether a user may still act on a valid token: the account exists and is active; and
+ * the user's current token generation (see TokenRevocationService).
+ * Answers from memory for up to {@code security.user-status.ttl-seconds};
+ * AuthService invalidates an entry as soon as it changes the account, so the TTL only
+ * bounds staleness for changes made outside this node.
+ */
+@Service
+public class UserStatusService {
+
+    static final int MAX_ENTRIES = 10_000;
+
+    private final UserRepo userRepo;
+    private final long ttlMillis;
+
+    private final Map<String, Status> cache = new ConcurrentHashMap<>();
+
+    public UserStatusService(UserRepo userRepo,
+                             @Value("${security.user-status.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepo = userRepo;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public boolean isAllowed(String email) {
+        return status(email).allowed;
+    }
+
+    // 0 for unknown users, like an account that was never revoked
+    public int tokenGeneration(String email) {
+        return status(email).tokenGeneration;
+    }
+
+    private Status status(String email) {
+        long now = System.currentTimeMillis();
+        Status status = cache.get(email);
+        if (status == null || status.loadedAt + ttlMillis < now) {
+            status = load(email, now);
+        }
+        return status;
+    }
+
+    public void invalidate(String email) {
+        if (email != null) cache.remove(email);
+    }
+
+    private Status load(String email, long now) {
+        Status status = userRepo.findByEmail(email)
+                .map(user -> new Status(allowed(user), user.getTokenGeneration(), now))
+                .orElseGet(() -> new Status(false, 0, now));
+        // Crude bound: a full map is simply emptied; it refills one query per active user
+        if (cache.size() >= MAX_ENTRIES) cache.clear();
+        cache.put(email, status);
+        return status;
+    }
+
+    // The same rule as login: an account is usable once activated
+    private static boolean allowed(User user) {
+        return user.isActive();
+    }
+
+    private static final class Status {
+        final boolean allowed;
+        final int tokenGeneration;
+        final long loadedAt;
+
+        Status(boolean allowed, int tokenGeneration, long loadedAt) {
+            this.allowed = allowed;
+            this.tokenGeneration = tokenGeneration;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+-- Run once on an existing MySQL database BEFORE deploying the unique invoice numbers.
+-- Hibernate (ddl-auto=update) cannot add the unique index while duplicate numbers are
+-- present; it creates the number_sequence table itself on startup.
+
+-- Older numbers were "INV-" + milliseconds, so two checkouts in the same millisecond
+-- share one. Keep the first invoice's number and suffix the others with their id.
+UPDATE invoices i
+JOIN (SELECT invoice_number, MIN(id) AS keep_id
+      FROM invoices
+      WHERE invoice_number IS NOT NULL
+      GROUP BY invoice_number
+      HAVING COUNT(*) > 1) d ON d.invoice_number = i.invoice_number
+SET i.invoice_number = CONCAT(i.invoice_number, '-', i.id)
+WHERE i.id <> d.keep_id;
+
+ALTER TABLE invoices ADD CONSTRAINT uk_invoices_invoice_number UNIQUE (invoice_number);
@@ -0,0 +1,32 @@
+-- Run once on an existing MySQL database BEFORE deploying money as whole cents.
+-- Hibernate (ddl-auto=update) would add the *_cents columns empty and NOT NULL, and
+-- leave the old DOUBLE columns behind; this copies the amounts over and drops them.
+
+ALTER TABLE product ADD COLUMN price_cents BIGINT NOT NULL DEFAULT 0;
+UPDATE product SET price_cents = ROUND(COALESCE(price, 0) * 100);
+ALTER TABLE product DROP COLUMN price;
+
+ALTER TABLE invoice_item ADD COLUMN price_at_sale_cents BIGINT NOT NULL DEFAULT 0;
+UPDATE invoice_item SET price_at_sale_cents = ROUND(COALESCE(price_at_sale, 0) * 100);
+ALTER TABLE invoice_item DROP COLUMN price_at_sale;
+
+ALTER TABLE invoices
+    ADD COLUMN subtotal_cents BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN discount_cents BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN total_cents    BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN paid_cents     BIGINT NOT NULL DEFAULT 0;
+UPDATE invoices
+SET subtotal_cents = ROUND(COALESCE(subtotal, 0) * 100),
+    discount_cents = ROUND(COALESCE(discount, 0) * 100),
+    total_cents    = ROUND(COALESCE(total, 0) * 100),
+    paid_cents     = ROUND(COALESCE(paid, 0) * 100);
+ALTER TABLE invoices DROP COLUMN subtotal, DROP COLUMN discount, DROP COLUMN total, DROP COLUMN paid;
+
+ALTER TABLE expense ADD COLUMN amount_cents BIGINT NOT NULL DEFAULT 0;
+UPDATE expense SET amount_cents = ROUND(COALESCE(amount, 0) * 100);
+ALTER TABLE expense DROP COLUMN amount;
+
+-- Rollup days were summed from the same doubles; converting each day is close enough
+ALTER TABLE daily_sales_rollup ADD COLUMN revenue_cents BIGINT NOT NULL DEFAULT 0;
+UPDATE daily_sales_rollup SET revenue_cents = ROUND(COALESCE(revenue, 0) * 100);
+ALTER TABLE daily_sales_rollup DROP COLUMN revenue;
@@ -0,0 +1,101 @@
+package com.rahmatullahsaruk.stock_management.repository;
+
+import com.rahmatullahsaruk.stock_management.entity.Expense;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.service.TimeBucket;
+import com.rahmatullahsaruk.stock_management.service.TimeSeriesService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Asks H2 for the plan of the SQL Hibernate actually sends for each range query
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.rahmatullahsaruk.stock_management.repository.DateRangeIndexTests$LastStatement")
+class DateRangeIndexTests {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 1, 1);
+
+    @Autowired private InvoiceRepo invoiceRepo;
+    @Autowired private ExpenseRepo expenseRepo;
+    @Autowired private DailySalesRollupRepo rollupRepo;
+    @Autowired private TimeSeriesService timeSeries;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        expenseRepo.deleteAll();
+        for (LocalDate day = FROM.minusDays(3); day.isBefore(TO.plusDays(3)); day = day.plusDays(1)) {
+            expenseRepo.save(new Expense(day, "Rent", null, Money.ofCents(100), "test"));
+        }
+    }
+
+    @Test
+    void expenseRangesSeekTheCoveringIndex() {
+        expenseRepo.sumCents(FROM, TO);
+        assertUsesIndex(explain(FROM, TO), "idx_expense_date_amount");
+
+        expenseRepo.sumCentsByDay(FROM, TO);
+        assertUsesIndex(explain(FROM, TO), "idx_expense_date_amount");
+    }
+
+    @Test
+    void invoiceRangesSeekTheDateIndex() {
+        invoiceRepo.sumCents(FROM.atStartOfDay(), TO.atStartOfDay());
+        assertUsesIndex(explain(FROM.atStartOfDay(), TO.atStartOfDay()), "idx_invoices_date_id");
+
+        invoiceRepo.sumCentsByDay(FROM.atStartOfDay(), TO.atStartOfDay());
+        assertUsesIndex(explain(FROM.atStartOfDay(), TO.atStartOfDay()), "idx_invoices_date_id");
+    }
+
+    @Test
+    void rollupRangesSeekThePrimaryKey() {
+        rollupRepo.sumCentsByDay(FROM, TO);
+        assertUsesIndex(explain(FROM, TO), "PRIMARY_KEY");
+    }
+
+    @Test
+    void bucketsAreHalfOpenAndDense() {
+        // 2024-01-01 is a Monday; the range ends mid-week and skips the last day of it
+        Map<LocalDate, Money> weeks = timeSeries.expenses(FROM, LocalDate.of(2024, 1, 13), TimeBucket.WEEK);
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 8)), List.copyOf(weeks.keySet()));
+        assertEquals(Money.ofCents(700), weeks.get(LocalDate.of(2024, 1, 1)));
+        assertEquals(Money.ofCents(500), weeks.get(LocalDate.of(2024, 1, 8)));
+
+        Map<LocalDate, Money> months = timeSeries.expenses(FROM, TO, TimeBucket.MONTH);
+        assertEquals(12, months.size());
+        assertEquals(Money.ofCents(2900), months.get(LocalDate.of(2024, 2, 1)));
+        assertEquals(Money.ofCents(36_600), timeSeries.totalExpenses(FROM, TO));
+    }
+
+    private String explain(Object... args) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + LastStatement.sql, String.class, args);
+        return String.join("\n", plan);
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        assertFalse(plan.contains("tableScan"), plan);
+        assertTrue(plan.contains(index), plan);
+    }
+
+    public static class LastStatement implements StatementInspector {
+        static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            LastStatement.sql = sql;
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.entity.Cashier;
+import com.rahmatullahsaruk.stock_management.entity.User;
+import com.rahmatullahsaruk.stock_management.repository.UserRepo;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class AuthServiceTests {
+
+    @Autowired private AuthService authService;
+    @Autowired private UserRepo userRepo;
+    @Autowired private WebApplicationContext context;
+    @Autowired @Qualifier("springSecurityFilterChain") private Filter securityFilter;
+
+    @Test
+    void registeredCashierLogsInOnceActivated() throws Exception {
+        String email = register("login-cashier@example.com");
+
+        RuntimeException inactive = assertThrows(RuntimeException.class, () -> authService.authenticate(request(email)));
+        assertEquals("Account is not activated.", inactive.getMessage());
+
+        authService.activeUser(userRepo.findByEmail(email).orElseThrow().getId());
+        assertNotNull(authService.authenticate(request(email)).getToken());
+    }
+
+    @Test
+    void registeredCashierActsOnAStatelessToken() throws Exception {
+        String email = register("stateless-cashier@example.com");
+        authService.activeUser(userRepo.findByEmail(email).orElseThrow().getId());
+        String token = authService.authenticate(request(email)).getToken();
+
+        // Built on the shared test context, with the real security filter chain in front
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(securityFilter).build();
+        mockMvc.perform(get("/api/cashier/profile").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(email));
+    }
+
+    // Through the production registration path, as a real cashier signs up
+    private String register(String email) throws Exception {
+        User user = new User();
+        user.setName("Test Cashier");
+        user.setEmail(email);
+        user.setPassword("secret");
+        Cashier cashier = new Cashier();
+        cashier.setName(user.getName());
+        cashier.setEmail(email);
+        authService.registerCashier(user, null, cashier);
+        return email;
+    }
+
+    private static User request(String email) {
+        User request = new User();
+        request.setEmail(email);
+        request.setPassword("secret");
+        return request;
+    }
+}
@@ -0,0 +1,187 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.dto.ReorderDTO;
+import com.rahmatullahsaruk.stock_management.dto.ReorderReportDTO;
+import com.rahmatullahsaruk.stock_management.dto.SupplierReorderDTO;
+import com.rahmatullahsaruk.stock_management.entity.DemandForecast;
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.entity.Supplier;
+import com.rahmatullahsaruk.stock_management.repository.DemandForecastRepo;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceItemRepo;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceRepo;
+import com.rahmatullahsaruk.stock_management.repository.NumberSequenceRepo;
+import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import com.rahmatullahsaruk.stock_management.repository.SupplierRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ForecastServiceTests {
+
+    @Autowired private InvoiceService invoiceService;
+    @Autowired private ForecastService forecastService;
+    @Autowired private ProductService productService;
+    @Autowired private InvoiceRepo invoiceRepo;
+    @Autowired private ProductRepo productRepo;
+    @Autowired private SupplierRepo supplierRepo;
+    @Autowired private DemandForecastRepo forecastRepo;
+    @Autowired private InvoiceItemRepo invoiceItemRepo;
+    @Autowired private NumberSequenceRepo sequenceRepo;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Product router;
+    private Supplier supplier;
+
+    @BeforeEach
+    void seed() {
+        // Consume whatever other tests left behind, then start from no models
+        forecastService.run();
+        invoiceRepo.deleteAll();
+        forecastRepo.deleteAll();
+        productRepo.deleteAll();
+
+        supplier = new Supplier();
+        supplier.setCompanyName("Net Supplies");
+        supplier.setLeadTimeDays(7);
+        supplier = supplierRepo.save(supplier);
+
+        router = new Product();
+        router.setName("Router");
+        router.setCategory(Product.Category.Accessory);
+        router.setBrand("Brand");
+        router.setQuantity(500);
+        router.setPrice(Money.of("50.00"));
+        router.setCost(Money.of("30.00"));
+        router.setSupplierId(supplier.getId());
+        router = productRepo.save(router);
+    }
+
+    @Test
+    void steadyDemandGivesLeadTimeReorderPoint() {
+        // Four units a day for the last four weeks
+        for (int day = 28; day >= 1; day--) checkout(LocalDate.now().minusDays(day), 4);
+        assertEquals(28, forecastService.run().get("rows"));
+
+        setStock(20);
+        ReorderReportDTO report = forecastService.getReorderReport(null);
+        ReorderDTO row = report.getProducts().get(0);
+        assertEquals(4.0, row.getDailyDemand());
+        assertEquals(7, row.getLeadTimeDays());
+        assertEquals(0, row.getSafetyStock());
+        assertEquals(28, row.getReorderPoint());
+        assertEquals(56 - 20, row.getSuggestedOrder());   // up to (lead time + review) x 4
+
+        SupplierReorderDTO total = report.getSuppliers().get(0);
+        assertEquals(supplier.getId(), total.getSupplierId());
+        assertEquals(1, total.getProducts());
+        assertEquals(Money.of("1080.00"), total.getEstimatedCost());
+
+        setStock(29);
+        assertEquals(0, forecastService.getReorderReport(supplier.getId()).getProducts().get(0).getSuggestedOrder());
+    }
+
+    @Test
+    void runsOnlyReadNewInvoicesAndLeaveTodayOpen() {
+        checkout(LocalDate.now().minusDays(3), 2);
+        assertEquals(1, forecastService.run().get("rows"));
+        assertEquals(0, forecastService.run().get("rows"));
+
+        checkout(LocalDate.now(), 5);
+        checkout(LocalDate.now().minusDays(10), 1);   // entered late: counts on the open day
+        assertEquals(2, forecastService.run().get("rows"));
+
+        DemandForecast model = forecastRepo.findById(router.getId()).orElseThrow();
+        assertEquals(LocalDate.now().minusDays(1), model.getLastFoldedDay());
+        assertEquals(6, model.getPendingUnits());
+        assertEquals(3, model.getDaysObserved());
+    }
+
+    @Test
+    void checkoutStillOpenWhenARunStartsIsNotSkipped() throws Exception {
+        Product cable = product("Cable");
+        ForecastService lagged = new ForecastService(invoiceRepo, invoiceItemRepo, forecastRepo, sequenceRepo,
+                supplierRepo, productService, transactionManager, 1000, 0.2, 0.1, 7, 7, 1.65, 2000);
+
+        // Takes the lower invoice id, then stays uncommitted while a later checkout commits
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> open = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    checkout(router, LocalDate.now().minusDays(3), 3);
+                    inserted.countDown();
+                    await(release);
+                }));
+        assertTrue(inserted.await(10, TimeUnit.SECONDS));
+        checkout(cable, LocalDate.now().minusDays(2), 1);
+
+        CompletableFuture<Map<String, Long>> run = CompletableFuture.supplyAsync(lagged::run);
+        Thread.sleep(500);   // the run has seen the later id and is waiting out its lag
+        release.countDown();
+        open.get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, run.get(10, TimeUnit.SECONDS).get("rows"));
+        assertEquals(0, forecastService.run().get("rows"));
+        assertEquals(3, forecastRepo.findById(router.getId()).orElseThrow().getDaysObserved());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Product product(String name) {
+        Product p = new Product();
+        p.setName(name);
+        p.setCategory(Product.Category.Accessory);
+        p.setBrand("Brand");
+        p.setQuantity(500);
+        p.setPrice(Money.of("10.00"));
+        p.setCost(Money.of("5.00"));
+        return productRepo.save(p);
+    }
+
+    private void checkout(LocalDate day, int qty) {
+        checkout(router, day, qty);
+    }
+
+    private void checkout(Product product, LocalDate day, int qty) {
+        Product ref = new Product();
+        ref.setId(product.getId());
+        InvoiceItem item = new InvoiceItem();
+        item.setProduct(ref);
+        item.setQuantity(qty);
+
+        Invoice invoice = new Invoice();
+        invoice.setName("Customer");
+        invoice.setDate(day.atTime(12, 0));
+        invoice.getItems().add(item);
+        invoiceService.save(invoice);
+    }
+
+    private void setStock(int quantity) {
+        Product p = productRepo.findById(router.getId()).orElseThrow();
+        p.setQuantity(quantity);
+        productRepo.save(p);
+        productService.productsChanged(List.of(p.getId()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.repository.NumberSequenceRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class InvoiceNumberServiceTests {
+
+    private static final int THREADS = 16;
+    private static final int PER_THREAD = 500;
+
+    @Autowired private InvoiceNumberService invoiceNumberService;
+    @Autowired private NumberSequenceRepo sequenceRepo;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void numbersCarryTheSaleDate() {
+        String number = invoiceNumberService.nextNumber(LocalDateTime.of(2024, 10, 18, 14, 5));
+
+        assertTrue(number.matches("INV-20241018-\\d{6,}"), number);
+    }
+
+    @Test
+    void instancesSharingTheSequenceNeverRepeatANumber() throws Exception {
+        // Two "nodes" with small blocks, so blocks are reserved concurrently many times over
+        InvoiceNumberService nodeA = new InvoiceNumberService(sequenceRepo, transactionManager, 7);
+        InvoiceNumberService nodeB = new InvoiceNumberService(sequenceRepo, transactionManager, 13);
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                InvoiceNumberService node = t % 2 == 0 ? nodeA : nodeB;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        assertTrue(seen.add(node.nextValue()), "duplicate invoice number");
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdownNow();
+            nodeA.shutdown();
+            nodeB.shutdown();
+        }
+
+        assertEquals(THREADS * PER_THREAD, seen.size());
+    }
+}
@@ -0,0 +1,106 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.dto.InvoiceDTO;
+import com.rahmatullahsaruk.stock_management.dto.InvoiceItemDTO;
+import com.rahmatullahsaruk.stock_management.dto.InvoicePageDTO;
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceRepo;
+import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class InvoiceQueryCountTests {
+
+    private static final int INVOICES = 12;
+    private static final int LINES = 3;
+
+    @Autowired private InvoiceService invoiceService;
+    @Autowired private InvoiceItemService invoiceItemService;
+    @Autowired private InvoiceRepo invoiceRepo;
+    @Autowired private ProductRepo productRepo;
+    @Autowired private StockStreamService stockStreamService;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long firstInvoiceId;
+
+    @BeforeEach
+    void seed() throws Exception {
+        invoiceRepo.deleteAll();
+        productRepo.deleteAll();
+
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            Product p = new Product();
+            p.setName("Mouse " + i);
+            p.setCategory(Product.Category.Accessory);
+            p.setBrand("Brand");
+            p.setQuantity(1000);
+            p.setPrice(Money.ofCents((10 + i) * 100L));
+            productIds.add(productRepo.save(p).getId());
+        }
+        for (int n = 0; n < INVOICES; n++) {
+            Invoice invoice = new Invoice();
+            invoice.setName("Customer " + n);
+            for (Long id : productIds) {
+                Product ref = new Product();
+                ref.setId(id);
+                InvoiceItem item = new InvoiceItem();
+                item.setProduct(ref);
+                item.setQuantity(1);
+                invoice.getItems().add(item);
+            }
+            Invoice saved = invoiceService.save(invoice);
+            if (firstInvoiceId == null) firstInvoiceId = saved.getId();
+        }
+
+        // The stock stream reads changed products in the background; let it finish first
+        stockStreamService.awaitIdle();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void invoicePageIsTwoStatements() {
+        InvoicePageDTO page = invoiceService.getPage(null, null, null, null, INVOICES);
+
+        assertEquals(INVOICES, page.getItems().size());
+        for (InvoiceDTO dto : page.getItems()) {
+            assertEquals(LINES, dto.getItems().size());
+            dto.getItems().forEach(i -> assertNotNull(i.getProductName()));
+        }
+        // keyset ids + one entity-graph fetch, regardless of invoice and line count
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void singleInvoiceIsOneStatement() {
+        InvoiceDTO dto = invoiceService.getDTOById(firstInvoiceId).orElseThrow();
+
+        assertEquals(LINES, dto.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void invoiceItemListIsOneStatement() {
+        List<InvoiceItemDTO> items = invoiceItemService.getAllInvoiceItems();
+
+        assertEquals(INVOICES * LINES, items.size());
+        items.forEach(i -> assertNotNull(i.getProductName()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,134 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.dto.MarginDTO;
+import com.rahmatullahsaruk.stock_management.dto.MarginReportDTO;
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceRepo;
+import com.rahmatullahsaruk.stock_management.repository.ProductMarginRepo;
+import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MarginServiceTests {
+
+    @Autowired private InvoiceService invoiceService;
+    @Autowired private MarginService marginService;
+    @Autowired private InvoiceRepo invoiceRepo;
+    @Autowired private ProductRepo productRepo;
+    @Autowired private ProductMarginRepo marginRepo;
+
+    private Product laptop;
+    private Product mouse;
+
+    @BeforeEach
+    void seed() {
+        invoiceRepo.deleteAll();
+        marginRepo.deleteAll();
+        productRepo.deleteAll();
+        laptop = product("Laptop", Product.Category.Laptop, "900.00", "700.00");
+        mouse = product("Mouse", Product.Category.Accessory, "25.00", "10.00");
+    }
+
+    @Test
+    void checkoutsAndDeletesMoveTheRunningMargins() {
+        checkout(laptop, 2, mouse, 3);
+        Invoice second = checkout(mouse, 1, null, 0);
+
+        // Later cost changes leave lines already sold alone
+        laptop.setCost(Money.of("800.00"));
+        productRepo.save(laptop);
+
+        MarginReportDTO report = marginService.getReport(null, null);
+        assertEquals(Money.of("1900.00"), report.getRevenue());      // 2 x 900 + 4 x 25
+        assertEquals(Money.of("1440.00"), report.getCost());         // 2 x 700 + 4 x 10
+        assertEquals(Money.of("460.00"), report.getMargin());
+        assertEquals(24.21, report.getMarginPercent());
+
+        assertEquals(2, report.getCategories().size());
+        MarginDTO accessories = report.getCategories().get(0);
+        assertEquals(Product.Category.Accessory, accessories.getCategory());
+        assertEquals(4, accessories.getUnitsSold());
+        assertEquals(Money.of("60.00"), accessories.getMargin());
+
+        assertEquals(laptop.getId(), report.getProducts().get(0).getProductId());
+        assertEquals(60.0, report.getProducts().get(1).getMarginPercent());
+
+        invoiceService.delete(second.getId());
+        MarginReportDTO afterDelete = marginService.getReport(Product.Category.Accessory, 10);
+        assertEquals(1, afterDelete.getProducts().size());
+        assertEquals(3, afterDelete.getProducts().get(0).getUnitsSold());
+        assertEquals(Money.of("45.00"), afterDelete.getProducts().get(0).getMargin());
+    }
+
+    @Test
+    void editingAnInvoiceKeepsTheCostOfLinesItDidNotChange() {
+        Invoice invoice = checkout(laptop, 1, mouse, 2);
+
+        laptop.setCost(Money.of("800.00"));
+        productRepo.save(laptop);
+        mouse.setCost(Money.of("12.00"));
+        productRepo.save(mouse);
+
+        // Laptop line as it was, mouse quantity changed
+        Invoice edit = new Invoice();
+        edit.setName("Customer");
+        edit.getItems().add(line(laptop, 1));
+        edit.getItems().add(line(mouse, 3));
+        invoiceService.update(invoice.getId(), edit);
+
+        MarginReportDTO report = marginService.getReport(null, null);
+        assertEquals(Money.of("736.00"), report.getCost());          // 1 x 700 (as sold) + 3 x 12 (current)
+    }
+
+    @Test
+    void rebuildMatchesTheIncrementalAggregates() {
+        checkout(laptop, 1, mouse, 2);
+        checkout(mouse, 5, laptop, 1);
+        MarginReportDTO incremental = marginService.getReport(null, null);
+
+        assertEquals(2, marginService.rebuild());
+        MarginReportDTO rebuilt = marginService.getReport(null, null);
+
+        assertEquals(incremental.getRevenue(), rebuilt.getRevenue());
+        assertEquals(incremental.getCost(), rebuilt.getCost());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(incremental.getProducts().get(i).getMargin(), rebuilt.getProducts().get(i).getMargin());
+        }
+    }
+
+    private Product product(String name, Product.Category category, String price, String cost) {
+        Product p = new Product();
+        p.setName(name);
+        p.setCategory(category);
+        p.setBrand("Brand");
+        p.setQuantity(100);
+        p.setPrice(Money.of(price));
+        p.setCost(Money.of(cost));
+        return productRepo.save(p);
+    }
+
+    private Invoice checkout(Product first, int firstQty, Product second, int secondQty) {
+        Invoice invoice = new Invoice();
+        invoice.setName("Customer");
+        invoice.getItems().add(line(first, firstQty));
+        if (second != null) invoice.getItems().add(line(second, secondQty));
+        return invoiceService.save(invoice);
+    }
+
+    private static InvoiceItem line(Product product, int qty) {
+        Product ref = new Product();
+        ref.setId(product.getId());
+        InvoiceItem item = new InvoiceItem();
+        item.setProduct(ref);
+        item.setQuantity(qty);
+        return item;
+    }
+}
@@ -0,0 +1,77 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.dto.ProductChangesDTO;
+import com.rahmatullahsaruk.stock_management.dto.ProductDTO;
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceRepo;
+import com.rahmatullahsaruk.stock_management.repository.NumberSequenceRepo;
+import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import com.rahmatullahsaruk.stock_management.repository.ProductTombstoneRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductChangeServiceTests {
+
+    @Autowired private ProductChangeService productChangeService;
+    @Autowired private ProductService productService;
+    @Autowired private InvoiceService invoiceService;
+    @Autowired private InvoiceRepo invoiceRepo;
+    @Autowired private ProductRepo productRepo;
+    @Autowired private ProductTombstoneRepo tombstoneRepo;
+    @Autowired private NumberSequenceRepo sequenceRepo;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void everyInstanceSharesOneSequence() {
+        // A second node: its own service over the same database
+        ProductChangeService otherNode =
+                new ProductChangeService(productRepo, tombstoneRepo, sequenceRepo, transactionManager);
+        Product kept = productService.saveProduct(product("Keyboard"));
+        Product removed = productService.saveProduct(product("Webcam"));
+        long since = otherNode.getVersion();
+        assertEquals(productChangeService.getVersion(), since);
+
+        Invoice invoice = new Invoice();
+        invoice.setName("Customer");
+        Product ref = new Product();
+        ref.setId(kept.getId());
+        InvoiceItem item = new InvoiceItem();
+        item.setProduct(ref);
+        item.setQuantity(3);
+        invoice.getItems().add(item);
+        invoiceService.save(invoice);
+        productService.deleteProduct(removed.getId());
+
+        // One sequence per transaction, whichever node reads it
+        ProductChangesDTO changes = otherNode.getChangesSince(since);
+        assertEquals(since + 2, changes.getVersion());
+        assertFalse(changes.isFull());
+        assertEquals(1, changes.getProducts().size());
+        ProductDTO changed = changes.getProducts().get(0);
+        assertEquals(kept.getId(), changed.getId());
+        assertEquals(7, changed.getQuantity());
+        assertEquals(1, changes.getDeleted().size());
+        assertEquals(removed.getId(), changes.getDeleted().get(0));
+
+        assertEquals(since + 2, productRepo.findById(kept.getId()).orElseThrow().getChangeSeq() + 1);
+        invoiceRepo.deleteAll();
+    }
+
+    private static Product product(String name) {
+        Product p = new Product();
+        p.setName(name);
+        p.setCategory(Product.Category.Accessory);
+        p.setBrand("Brand");
+        p.setQuantity(10);
+        p.setPrice(Money.of("15.00"));
+        return p;
+    }
+}
@@ -0,0 +1,88 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.dto.ProfitBucketDTO;
+import com.rahmatullahsaruk.stock_management.dto.ProfitRangeDTO;
+import com.rahmatullahsaruk.stock_management.entity.DailySalesRollup;
+import com.rahmatullahsaruk.stock_management.entity.Expense;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.repository.DailySalesRollupRepo;
+import com.rahmatullahsaruk.stock_management.repository.ExpenseRepo;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProfitRangeTests {
+
+    @Autowired private ProfitService profitService;
+    @Autowired private DailySalesRollupRepo rollupRepo;
+    @Autowired private ExpenseRepo expenseRepo;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        rollupRepo.deleteAll();
+        expenseRepo.deleteAll();
+
+        // Every day: 10.00 revenue in 2023 and 20.00 in 2024, 1.00 expenses in both
+        List<DailySalesRollup> days = new ArrayList<>();
+        List<Expense> expenses = new ArrayList<>();
+        for (LocalDate day = LocalDate.of(2023, 1, 1); day.getYear() < 2025; day = day.plusDays(1)) {
+            DailySalesRollup r = new DailySalesRollup();
+            r.setSalesDate(day);
+            r.setRevenueCents(day.getYear() == 2023 ? 1_000 : 2_000);
+            days.add(r);
+            expenses.add(new Expense(day, "Rent", null, Money.ofCents(100), "test"));
+        }
+        rollupRepo.saveAll(days);
+        expenseRepo.saveAll(expenses);
+    }
+
+    @Test
+    void quartersCarryYearOverYearChange() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Ends mid-December: widened to the whole last quarter
+        ProfitRangeDTO range = profitService.getProfitRange(
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 20), TimeBucket.QUARTER);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(4, range.getBuckets().size());
+
+        // Q1 2024 has 91 days (leap year), Q1 2023 has 90
+        ProfitBucketDTO q1 = range.getBuckets().get(0);
+        long profit = 91 * (2_000 - 100);
+        long lastYear = 90 * (1_000 - 100);
+        assertEquals(LocalDate.of(2024, 1, 1), q1.getStart());
+        assertEquals(LocalDate.of(2024, 4, 1), q1.getEnd());
+        assertEquals(Money.ofCents(91 * 2_000), q1.getRevenue());
+        assertEquals(Money.ofCents(profit), q1.getProfit());
+        assertEquals(Money.ofCents(91 * 2_000 - 90 * 1_000), q1.getRevenueChange());
+        assertEquals(Money.ofCents(profit - lastYear), q1.getProfitChange());
+        assertEquals(113.46, q1.getProfitChangePercent());
+
+        assertEquals(LocalDate.of(2025, 1, 1), range.getBuckets().get(3).getEnd());
+        assertEquals(Money.ofCents(366 * (2_000 - 100)), range.getProfit());
+    }
+
+    @Test
+    void rangeBeforeAnyDataHasNoPercentChange() {
+        ProfitRangeDTO range = profitService.getProfitRange(
+                LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 3), TimeBucket.DAY);
+
+        assertEquals(2, range.getBuckets().size());
+        assertEquals(Money.ofCents(900), range.getBuckets().get(0).getProfitChange());
+        assertNull(range.getBuckets().get(0).getProfitChangePercent());
+    }
+}
@@ -0,0 +1,115 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.dto.ProductSalesDTO;
+import com.rahmatullahsaruk.stock_management.dto.TopProductsDTO;
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceRepo;
+import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SalesRankingServiceTests {
+
+    @Autowired private InvoiceService invoiceService;
+    @Autowired private SalesRankingService salesRankingService;
+    @Autowired private ProductService productService;
+    @Autowired private InvoiceRepo invoiceRepo;
+    @Autowired private ProductRepo productRepo;
+
+    private Product laptop;
+    private Product mouse;
+    private Product cable;
+
+    @BeforeEach
+    void seed() {
+        invoiceRepo.deleteAll();
+        productRepo.deleteAll();
+        laptop = product("Laptop");
+        mouse = product("Mouse");
+        cable = product("Cable");
+        productService.productsChanged(List.of(laptop.getId(), mouse.getId(), cable.getId()));
+    }
+
+    @Test
+    void windowDecidesBestSellersAndSlowMovers() {
+        Invoice today = checkout(LocalDateTime.now(), laptop, 5, mouse, 2);
+        checkout(LocalDateTime.now().minusDays(10), mouse, 10, null, 0);
+
+        TopProductsDTO week = salesRankingService.getTopProducts(7, 10);
+        assertEquals(List.of(laptop.getId(), mouse.getId()), ids(week.getBestSellers()));
+        assertEquals(5, week.getBestSellers().get(0).getUnitsSold());
+        assertEquals(List.of(cable.getId(), mouse.getId(), laptop.getId()), ids(week.getSlowMovers()));
+
+        TopProductsDTO month = salesRankingService.getTopProducts(30, 1);
+        assertEquals(List.of(mouse.getId()), ids(month.getBestSellers()));
+        assertEquals(12, month.getBestSellers().get(0).getUnitsSold());
+        assertEquals(List.of(cable.getId()), ids(month.getSlowMovers()));
+
+        invoiceService.delete(today.getId());
+        assertTrue(salesRankingService.getTopProducts(7, 10).getBestSellers().isEmpty());
+        assertEquals(10, salesRankingService.getTopProducts(30, 10).getBestSellers().get(0).getUnitsSold());
+    }
+
+    @Test
+    void windowBeyondTheRingIsRejected() {
+        int max = salesRankingService.getMaxWindowDays();
+        assertThrows(IllegalArgumentException.class, () -> salesRankingService.getTopProducts(max + 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> salesRankingService.getTopProducts(0, 10));
+    }
+
+    @Test
+    void counterCarriesTotalsAcrossQuietDays() {
+        SalesRankingService.DailyCounter counter = new SalesRankingService.DailyCounter(8);
+        counter.add(100, 3);
+        counter.add(103, 4);
+        counter.add(101, 1);      // late line for an earlier day
+        counter.add(120, 2);      // ring wraps past every earlier slot
+
+        assertEquals(2, counter.unitsBetween(113, 120));
+        assertEquals(0, counter.unitsBetween(113, 119));
+        assertEquals(2, counter.unitsBetween(113, 125));
+    }
+
+    private Product product(String name) {
+        Product p = new Product();
+        p.setName(name);
+        p.setCategory(Product.Category.Accessory);
+        p.setBrand("Brand");
+        p.setQuantity(100);
+        p.setPrice(Money.of("10.00"));
+        return productRepo.save(p);
+    }
+
+    private Invoice checkout(LocalDateTime date, Product first, int firstQty, Product second, int secondQty) {
+        Invoice invoice = new Invoice();
+        invoice.setName("Customer");
+        invoice.setDate(date);
+        invoice.getItems().add(line(first, firstQty));
+        if (second != null) invoice.getItems().add(line(second, secondQty));
+        return invoiceService.save(invoice);
+    }
+
+    private static InvoiceItem line(Product product, int qty) {
+        Product ref = new Product();
+        ref.setId(product.getId());
+        InvoiceItem item = new InvoiceItem();
+        item.setProduct(ref);
+        item.setQuantity(qty);
+        return item;
+    }
+
+    private static List<Long> ids(List<ProductSalesDTO> rows) {
+        return rows.stream().map(ProductSalesDTO::getProductId).toList();
+    }
+}
@@ -0,0 +1,58 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.repository.DailySalesRollupRepo;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SalesRollupServiceTests {
+
+    @Autowired private SalesRollupService salesRollupService;
+    @Autowired private DailySalesRollupRepo rollupRepo;
+    @Autowired private InvoiceRepo invoiceRepo;
+
+    @BeforeEach
+    void seed() {
+        invoiceRepo.deleteAll();
+        rollupRepo.deleteAll();
+        // Saved straight through the repository: invoices from before the rollup existed
+        invoiceRepo.save(invoice(LocalDate.of(2024, 3, 1), 1_500));
+        invoiceRepo.save(invoice(LocalDate.of(2024, 3, 1), 500));
+        invoiceRepo.save(invoice(LocalDate.of(2024, 3, 5), 700));
+    }
+
+    @Test
+    void backfillFillsAnEmptyRollupFromExistingInvoices() {
+        salesRollupService.backfillIfEmpty();
+
+        assertEquals(2, rollupRepo.count());
+        assertEquals(Money.ofCents(2_700),
+                salesRollupService.getRevenue(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 6)));
+    }
+
+    @Test
+    void openEndedRebuildStopsAfterTheLatestInvoice() {
+        assertEquals(2, salesRollupService.rebuild(null, null));
+        assertEquals(1, salesRollupService.rebuild(LocalDate.of(2024, 3, 5), null));
+        assertEquals(Money.ofCents(2_000),
+                salesRollupService.getRevenue(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 2)));
+    }
+
+    private static Invoice invoice(LocalDate day, long cents) {
+        Invoice invoice = new Invoice();
+        invoice.setName("Customer");
+        invoice.setDate(day.atTime(10, 0));
+        invoice.setSubtotal(Money.ofCents(cents));
+        invoice.setTotal(Money.ofCents(cents));
+        return invoice;
+    }
+}
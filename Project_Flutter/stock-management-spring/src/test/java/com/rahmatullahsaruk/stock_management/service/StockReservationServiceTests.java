@@ -0,0 +1,133 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.entity.Invoice;
+import com.rahmatullahsaruk.stock_management.entity.InvoiceItem;
+import com.rahmatullahsaruk.stock_management.entity.Money;
+import com.rahmatullahsaruk.stock_management.entity.Product;
+import com.rahmatullahsaruk.stock_management.exception.InsufficientStockException;
+import com.rahmatullahsaruk.stock_management.repository.InvoiceRepo;
+import com.rahmatullahsaruk.stock_management.repository.ProductRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class StockReservationServiceTests {
+
+    private static final int PRODUCTS = 5;
+    private static final int INITIAL_STOCK = 500;
+    private static final int CHECKOUTS = 2000;
+    private static final int THREADS = 32;
+
+    @Autowired private InvoiceService invoiceService;
+    @Autowired private InvoiceRepo invoiceRepo;
+    @Autowired private ProductRepo productRepo;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        invoiceRepo.deleteAll();
+        productRepo.deleteAll();
+        productIds.clear();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product p = new Product();
+            p.setName("Laptop " + i);
+            p.setCategory(Product.Category.Laptop);
+            p.setBrand("Brand");
+            p.setQuantity(INITIAL_STOCK);
+            p.setPrice(Money.ofCents((1000 + i) * 100L));
+            productIds.add(productRepo.save(p).getId());
+        }
+    }
+
+    @Test
+    void reportsEveryShortLineAtOnce() {
+        Invoice invoice = new Invoice();
+        invoice.getItems().add(item(productIds.get(0), INITIAL_STOCK + 1));
+        invoice.getItems().add(item(productIds.get(1), 1));
+        invoice.getItems().add(item(productIds.get(2), INITIAL_STOCK + 5));
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+                () -> invoiceService.save(invoice));
+
+        assertEquals(2, ex.getShortages().size());
+        assertEquals(productIds.get(0), ex.getShortages().get(0).getProductId());
+        assertEquals(productIds.get(2), ex.getShortages().get(1).getProductId());
+        // Nothing was sold: the good line was rolled back with the rest
+        assertEquals(INITIAL_STOCK, productRepo.findById(productIds.get(1)).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void duplicateLinesAreCheckedTogether() {
+        Invoice invoice = new Invoice();
+        invoice.getItems().add(item(productIds.get(0), INITIAL_STOCK));
+        invoice.getItems().add(item(productIds.get(0), 1));
+
+        assertThrows(InsufficientStockException.class, () -> invoiceService.save(invoice));
+        assertEquals(INITIAL_STOCK, productRepo.findById(productIds.get(0)).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void parallelCheckoutsNeverOversell() throws Exception {
+        AtomicIntegerArray sold = new AtomicIntegerArray(PRODUCTS);
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int n = 0; n < CHECKOUTS; n++) {
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                // Two distinct products listed in random order, to provoke lock-order inversions
+                int a = rnd.nextInt(PRODUCTS);
+                int b = (a + 1 + rnd.nextInt(PRODUCTS - 1)) % PRODUCTS;
+                int qa = 1 + rnd.nextInt(3);
+                int qb = 1 + rnd.nextInt(3);
+
+                Invoice invoice = new Invoice();
+                invoice.getItems().add(item(productIds.get(a), qa));
+                invoice.getItems().add(item(productIds.get(b), qb));
+                try {
+                    invoiceService.save(invoice);
+                    sold.addAndGet(a, qa);
+                    sold.addAndGet(b, qb);
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.MINUTES));
+        for (Future<?> f : futures) f.get(); // rethrows deadlocks / lock timeouts
+
+        assertTrue(rejected.get() > 0, "demand should exceed supply");
+        for (int i = 0; i < PRODUCTS; i++) {
+            int remaining = productRepo.findById(productIds.get(i)).orElseThrow().getQuantity();
+            assertTrue(remaining >= 0);
+            assertEquals(INITIAL_STOCK - sold.get(i), remaining);
+        }
+        assertEquals(CHECKOUTS - rejected.get(), invoiceRepo.count());
+    }
+
+    private static InvoiceItem item(Long productId, int quantity) {
+        Product ref = new Product();
+        ref.setId(productId);
+        InvoiceItem item = new InvoiceItem();
+        item.setProduct(ref);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
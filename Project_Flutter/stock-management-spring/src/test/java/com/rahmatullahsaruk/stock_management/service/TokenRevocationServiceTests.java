@@ -0,0 +1,55 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.entity.Role;
+import com.rahmatullahsaruk.stock_management.entity.User;
+import com.rahmatullahsaruk.stock_management.repository.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TokenRevocationServiceTests {
+
+    private static final String EMAIL = "revoked@example.com";
+
+    @Autowired private TokenRevocationService tokenRevocationService;
+    @Autowired private UserStatusService userStatusService;
+    @Autowired private UserRepo userRepo;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seed() {
+        userRepo.findByEmail(EMAIL).ifPresent(userRepo::delete);
+        userStatusService.invalidate(EMAIL);
+        User user = new User();
+        user.setName("Test");
+        user.setEmail(EMAIL);
+        user.setPassword("x");
+        user.setRole(Role.CASHIER);
+        user.setActive(true);
+        userRepo.save(user);
+    }
+
+    @Test
+    void revocationIsSharedThroughTheDatabase() {
+        assertEquals(1, tokenRevocationService.revokeAll(EMAIL));
+        assertTrue(tokenRevocationService.isCurrent(EMAIL, 1));
+
+        // Another instance, whose status cache has expired, sees this instance's revocation
+        TokenRevocationService otherNode = new TokenRevocationService(userRepo, new UserStatusService(userRepo, 0));
+        assertFalse(otherNode.isCurrent(EMAIL, 0));
+        assertTrue(otherNode.isCurrent(EMAIL, 1));
+
+        // ... and this one sees the other's; a newer token than the cached generation is accepted
+        int gen = new TransactionTemplate(transactionManager).execute(status -> otherNode.revokeAll(EMAIL));
+        assertEquals(2, gen);
+        assertTrue(tokenRevocationService.isCurrent(EMAIL, 2));
+        userStatusService.invalidate(EMAIL);
+        assertFalse(tokenRevocationService.isCurrent(EMAIL, 1));
+    }
+}
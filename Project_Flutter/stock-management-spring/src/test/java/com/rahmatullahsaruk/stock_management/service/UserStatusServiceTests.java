@@ -0,0 +1,39 @@
+package com.rahmatullahsaruk.stock_management.service;
+
+import com.rahmatullahsaruk.stock_management.entity.Role;
+import com.rahmatullahsaruk.stock_management.entity.User;
+import com.rahmatullahsaruk.stock_management.repository.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserStatusServiceTests {
+
+    @Autowired private UserStatusService userStatusService;
+    @Autowired private UserRepo userRepo;
+
+    @Test
+    void inactiveAndMissingAccountsAreRefused() {
+        save("open@example.com", true);
+        save("inactive@example.com", false);
+
+        assertTrue(userStatusService.isAllowed("open@example.com"));
+        assertFalse(userStatusService.isAllowed("inactive@example.com"));
+        assertFalse(userStatusService.isAllowed("missing@example.com"));
+    }
+
+    private void save(String email, boolean active) {
+        userStatusService.invalidate(email);
+        userRepo.findByEmail(email).ifPresent(userRepo::delete);
+        User user = new User();
+        user.setName("Test");
+        user.setEmail(email);
+        user.setPassword("x");
+        user.setRole(Role.CASHIER);
+        user.setActive(active);
+        userRepo.save(user);
+    }
+}